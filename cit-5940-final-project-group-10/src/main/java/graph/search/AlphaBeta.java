@@ -0,0 +1,612 @@
+package graph.search;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Negamax search with alpha-beta pruning over a {@link SearchPosition}.
+ * Children are generated one ply at a time and played in place, so no tree is built:
+ * memory is one reusable move list per ply, however deep the search goes,
+ * and a cutoff stops the remaining siblings before they are ever created.
+ * Scores are always from the side to move's perspective.
+ * A search can be given a wall-clock deadline or a stop condition; once either fires, the search unwinds
+ * at once and reports itself as aborted, leaving the best root move among the fully searched ones.
+ * Moves are tried transposition table move first; with a {@link MoveOrdering} the rest follow
+ * by killer and history scores, and an optional shallow search finds a first move where the table has none.
+ * With principal variation search enabled, only the first move gets the full window: later moves are
+ * searched with a null window that just tests whether they beat the best so far, and are re-searched
+ * with the full window when one does.
+ * With {@link LateMoveReductions}, late moves with little history are first searched shallower,
+ * and only searched to full depth when that reduced search beats alpha.
+ * With enhanced transposition cutoffs, a deep enough node first looks up each child in the table and
+ * cuts at once when one of them is already known to refute beta.
+ * With {@link ProbCut} models, a node whose shallow search predicts a result well outside the window
+ * is cut without being searched to full depth; this is selective and may change the result.
+ * An instance keeps per-search scratch state and must only be used by one thread at a time.
+ * @param <P> The type of position searched
+ */
+public class AlphaBeta<P extends SearchPosition> {
+    /** The deepest ply a search can reach. */
+    public static final int MAX_PLY = 128;
+
+    /** Best move value when no move has been searched. */
+    public static final int NO_MOVE = -1;
+
+    /** Failed aspiration searches before the window is opened fully. */
+    public static final int ASPIRATION_WIDENINGS = 2;
+
+    // nodes between clock reads, a power of two
+    private static final int CHECK_INTERVAL = 1024;
+
+    // the shallow ordering search is this many plies shallower than the node it orders
+    private static final int SHALLOW_REDUCTION = 2;
+    private final ToDoubleFunction<P> evaluator;
+    private final MoveList[] moveLists;
+    private TranspositionTable table;
+    private MoveOrdering ordering;
+    private int shallowSearchDepth;
+    private int etcDepth;
+    private boolean principalVariation;
+    private ProbCut<P> probCut;
+    private LateMoveReductions reductions;
+
+    private long nodes;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long researches;
+    private long reducedMoves;
+    private long reductionResearches;
+    private long probCutTries;
+    private long probCuts;
+    private long etcTries;
+    private long etcCutoffs;
+    private int bestMove = NO_MOVE;
+    private int rootHint = NO_MOVE;
+
+    private boolean timed;
+    private long deadline;
+    private BooleanSupplier stopCondition;
+    private boolean aborted;
+
+    /**
+     * Creates a search engine
+     * @param evaluator Scores a position at the depth limit for the side to move
+     * @param maxMoves The largest number of moves a position can have
+     */
+    public AlphaBeta(ToDoubleFunction<P> evaluator, int maxMoves) {
+        this.evaluator = evaluator;
+        this.moveLists = new MoveList[MAX_PLY];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList(maxMoves);
+        }
+    }
+
+    /**
+     * Sets a transposition table to read and fill during searches, which may be shared with other engines
+     * @param table The table to use, or null to search without one
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * @return The transposition table in use, or null
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Sets the killer and history tables used to order moves
+     * @param ordering The tables to use, or null to only try the table move first
+     */
+    public void setMoveOrdering(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * @return The move ordering tables in use, or null
+     */
+    public MoveOrdering getMoveOrdering() {
+        return ordering;
+    }
+
+    /**
+     * Enables shallow-search ordering: a node with no table move and at least this much depth left
+     * is first searched {@value #SHALLOW_REDUCTION} plies shallower to find one.
+     * Needs a transposition table to carry the move over.
+     * @param minDepth The smallest remaining depth to do it at, or 0 to disable
+     */
+    public void setShallowSearchDepth(int minDepth) {
+        this.shallowSearchDepth = minDepth;
+    }
+
+    /**
+     * Enables enhanced transposition cutoffs: before searching a node below the root with at least this much
+     * depth left, every child is looked up in the transposition table, and the node is cut if a child's
+     * stored upper bound, searched deep enough, already proves a score of at least beta.
+     * This costs a move and a probe per child, so it only pays where the subtree saved is large.
+     * Needs a transposition table.
+     * @param minDepth The smallest remaining depth to do it at, or 0 to disable
+     */
+    public void setEnhancedTranspositionCutoffDepth(int minDepth) {
+        this.etcDepth = minDepth;
+    }
+
+    /**
+     * @return The smallest remaining depth enhanced transposition cutoffs are tried at, 0 if disabled
+     */
+    public int getEnhancedTranspositionCutoffDepth() {
+        return etcDepth;
+    }
+
+    /**
+     * Switches between plain alpha-beta and principal variation search (NegaScout).
+     * Both return the same score; PVS usually visits fewer nodes when moves are well ordered.
+     * @param enabled Whether to search later siblings with null windows
+     */
+    public void setPrincipalVariation(boolean enabled) {
+        this.principalVariation = enabled;
+    }
+
+    /**
+     * @return Whether principal variation search is enabled
+     */
+    public boolean isPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /**
+     * Enables late move reductions. A move below the root is reduced when the table gives it a reduction,
+     * it is not a killer, and its history score is not above the average of its siblings';
+     * without move ordering every late move counts as low-history.
+     * @param reductions The reduction table, or null to search every move to full depth
+     */
+    public void setLateMoveReductions(LateMoveReductions reductions) {
+        this.reductions = reductions;
+    }
+
+    /**
+     * @return The late move reduction table in use, or null
+     */
+    public LateMoveReductions getLateMoveReductions() {
+        return reductions;
+    }
+
+    /**
+     * Enables Multi-ProbCut: before searching a node below the root, the models for its depth and stage
+     * predict from a shallow search whether it would fail high or low, and cut it if so.
+     * @param probCut The models to use, or null to search every node fully
+     */
+    public void setProbCut(ProbCut<P> probCut) {
+        this.probCut = probCut;
+    }
+
+    /**
+     * @return The ProbCut models in use, or null
+     */
+    public ProbCut<P> getProbCut() {
+        return probCut;
+    }
+
+    /**
+     * Makes later searches stop once {@link System#nanoTime()} reaches the deadline
+     * @param deadline The deadline as a System.nanoTime() value
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+        this.timed = true;
+    }
+
+    /**
+     * Lets later searches run to their full depth.
+     */
+    public void clearDeadline() {
+        this.timed = false;
+    }
+
+    /**
+     * Makes later searches stop as soon as a condition becomes true, for example when another
+     * thread no longer needs the result. The condition is polled with the clock.
+     * @param stopCondition The condition, or null to never stop early
+     */
+    public void setStopCondition(BooleanSupplier stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * @return Whether the last search hit its deadline or stop condition, in which case its score is meaningless
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Searches a position with a full window.
+     * @param position The position to search; it is restored before returning
+     * @param depth The number of plies to search
+     * @return The score for the side to move
+     */
+    public double search(P position, int depth) {
+        return search(position, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Searches a position within a window. A score at or below alpha is an upper bound
+     * and a score at or above beta is a lower bound.
+     * The best move of the previous search is tried first at the root, which is what
+     * iterative deepening wants when the same position is searched one ply deeper.
+     * @param position The position to search; it is restored before returning
+     * @param depth The number of plies to search
+     * @param alpha The lower end of the window
+     * @param beta The upper end of the window
+     * @return The score for the side to move
+     */
+    public double search(P position, int depth, double alpha, double beta) {
+        rootHint = bestMove;
+        bestMove = NO_MOVE;
+        aborted = false;
+        return alphaBeta(position, depth, 0, alpha, beta);
+    }
+
+    /**
+     * Searches with an aspiration window around an expected score, such as the previous iteration's.
+     * A narrow window cuts more, and when the true score falls outside it the search is repeated
+     * with the failing side widened, open to infinity after {@value #ASPIRATION_WIDENINGS} tries.
+     * @param position The position to search; it is restored before returning
+     * @param depth The number of plies to search
+     * @param guess The expected score
+     * @param window The half-width of the first window
+     * @return The score for the side to move
+     */
+    public double searchWithAspiration(P position, int depth, double guess, double window) {
+        double alpha = guess - window;
+        double beta = guess + window;
+        for (int failures = 1; ; failures++) {
+            double score = search(position, depth, alpha, beta);
+            if (aborted || (score > alpha && score < beta)) {
+                return score;
+            }
+            researches++;
+            window *= 4;
+            if (score <= alpha) {
+                alpha = failures >= ASPIRATION_WIDENINGS ? Double.NEGATIVE_INFINITY : score - window;
+            } else {
+                beta = failures >= ASPIRATION_WIDENINGS ? Double.POSITIVE_INFINITY : score + window;
+            }
+        }
+    }
+
+    /**
+     * @return The best root move of the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return The number of positions visited since the last reset
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The number of beta cutoffs since the last reset
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * @return The number of beta cutoffs caused by the first move tried since the last reset
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * @return The fraction of cutoffs caused by the first move tried, 0 if there were none;
+     * the closer to 1, the closer the search is to the minimal tree
+     */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * @return The number of re-searches since the last reset, after null-window
+     * or aspiration searches that failed
+     */
+    public long getResearches() {
+        return researches;
+    }
+
+    /**
+     * @return The number of moves searched with reduced depth since the last reset
+     */
+    public long getReducedMoves() {
+        return reducedMoves;
+    }
+
+    /**
+     * @return The number of reduced moves that beat alpha and were searched again at full depth since the last reset
+     */
+    public long getReductionResearches() {
+        return reductionResearches;
+    }
+
+    /**
+     * @return The number of nodes tested with ProbCut since the last reset
+     */
+    public long getProbCutTries() {
+        return probCutTries;
+    }
+
+    /**
+     * @return The number of nodes cut by ProbCut since the last reset
+     */
+    public long getProbCuts() {
+        return probCuts;
+    }
+
+    /**
+     * @return The number of nodes whose children were looked up for enhanced transposition cutoffs since the last reset
+     */
+    public long getEtcTries() {
+        return etcTries;
+    }
+
+    /**
+     * @return The number of nodes cut by enhanced transposition cutoffs since the last reset
+     */
+    public long getEtcCutoffs() {
+        return etcCutoffs;
+    }
+
+    /**
+     * Resets the node, cutoff, re-search, reduction, ProbCut and enhanced transposition cutoff counters.
+     */
+    public void resetNodes() {
+        nodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        researches = 0;
+        reducedMoves = 0;
+        reductionResearches = 0;
+        probCutTries = 0;
+        probCuts = 0;
+        etcTries = 0;
+        etcCutoffs = 0;
+    }
+
+    private double alphaBeta(P position, int depth, int ply, double alpha, double beta) {
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0 && shouldStop()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        nodes++;
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return evaluator.applyAsDouble(position);
+        }
+
+        MoveList moves = moveLists[ply];
+        if (position.generateMoves(moves) == 0) {
+            return position.terminalScore();
+        }
+
+        long key = position.getKey();
+        int tableMove = NO_MOVE;
+        long entry = 0;
+        if (table != null) {
+            entry = table.probe(key);
+            if (entry != 0) {
+                // the root never returns from the table, so it always has a best move to report
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    double stored = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && stored >= beta)
+                            || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+                        return stored;
+                    }
+                }
+                tableMove = tableMove(entry);
+            }
+        }
+        if (table != null && etcDepth > 0 && depth >= etcDepth && ply > 0) {
+            double cut = enhancedCutoff(position, moves, key, depth, beta);
+            if (!Double.isNaN(cut)) {
+                return cut;
+            }
+        }
+        if (probCut != null && ply > 0) {
+            ProbCut.Model model = probCut.model(position, depth);
+            if (model != null) {
+                double cut = probCut(position, model, ply, alpha, beta);
+                if (aborted) {
+                    return 0;
+                }
+                if (!Double.isNaN(cut)) {
+                    return cut;
+                }
+                // the shallow searches reuse this ply's move list, and may have left a table move behind
+                position.generateMoves(moves);
+                if (table != null && tableMove == NO_MOVE) {
+                    entry = table.probe(key);
+                    tableMove = tableMove(entry);
+                }
+            }
+        }
+        if (entry == 0 && table != null && shallowSearchDepth > 0 && depth >= shallowSearchDepth && ply > 0) {
+            // the shallow search reuses this ply's move list, so the moves are generated again after it
+            alphaBeta(position, depth - SHALLOW_REDUCTION, ply, alpha, beta);
+            if (aborted) {
+                return 0;
+            }
+            position.generateMoves(moves);
+            tableMove = tableMove(table.probe(key));
+        }
+        if (ply == 0 && moves.indexOf(rootHint) >= 0) {
+            tableMove = rootHint;
+        }
+        if (ordering != null) {
+            ordering.order(moves, ply, tableMove);
+        } else {
+            int first = moves.indexOf(tableMove);
+            if (first > 0) {
+                moves.swap(0, first);
+            }
+        }
+
+        double originalAlpha = alpha;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int localBest = moves.get(0);
+        long historyTotal = 0;
+        if (reductions != null && ordering != null && ply > 0) {
+            for (int i = 0; i < moves.size(); i++) {
+                historyTotal += ordering.getHistory(moves.get(i));
+            }
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            double score = 0;
+            boolean fullDepth = true;
+            int reduction = reduction(move, i, depth, ply, moves.size(), historyTotal);
+            if (reduction > 0) {
+                // a reduced null-window search that fails low is trusted, one that beats alpha is searched again
+                reducedMoves++;
+                score = -alphaBeta(position, depth - 1 - reduction, ply + 1, -Math.nextUp(alpha), -alpha);
+                fullDepth = score > alpha && !aborted;
+                if (fullDepth) {
+                    reductionResearches++;
+                }
+            }
+            if (fullDepth) {
+                if (principalVariation && i > 0) {
+                    // test whether this move beats alpha at all, then search it properly only if it does
+                    score = -alphaBeta(position, depth - 1, ply + 1, -Math.nextUp(alpha), -alpha);
+                    if (score > alpha && score < beta && !aborted) {
+                        researches++;
+                        score = -alphaBeta(position, depth - 1, ply + 1, -beta, -alpha);
+                    }
+                } else {
+                    score = -alphaBeta(position, depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            position.undoMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                localBest = move;
+                if (ply == 0) {
+                    bestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                cutoffs++;
+                if (i == 0) {
+                    firstMoveCutoffs++;
+                }
+                if (ordering != null) {
+                    ordering.recordCutoff(move, ply, depth);
+                }
+                break; // Cutoff
+            }
+        }
+
+        if (table != null) {
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER
+                    : bestScore >= beta ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            table.store(key, depth, bound, bestScore, localBest);
+        }
+        return bestScore;
+    }
+
+    // Returns the plies to take off a move's search, 0 for a move that should get full depth
+    private int reduction(int move, int index, int depth, int ply, int count, long historyTotal) {
+        if (reductions == null || ply == 0) {
+            return 0;
+        }
+        int reduction = reductions.reduction(depth, index);
+        if (reduction == 0 || ordering == null) {
+            return reduction;
+        }
+        if (move == ordering.getKiller(ply, 0) || move == ordering.getKiller(ply, 1)
+                || ordering.getHistory(move) * count > historyTotal) {
+            return 0;
+        }
+        return reduction;
+    }
+
+    // Looks up every child in the table; returns the proven lower bound to cut with, or NaN to search the node
+    private double enhancedCutoff(P position, MoveList moves, long key, int depth, double beta) {
+        etcTries++;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            position.makeMove(move);
+            long child = table.probe(position.getKey());
+            position.undoMove();
+            if (child == 0 || TranspositionTable.depth(child) < depth - 1) {
+                continue;
+            }
+            // an exact score or upper bound for the child is a lower bound for us
+            int bound = TranspositionTable.bound(child);
+            double score = -TranspositionTable.score(child);
+            if ((bound == TranspositionTable.EXACT || bound == TranspositionTable.UPPER) && score >= beta) {
+                etcCutoffs++;
+                table.store(key, depth, TranspositionTable.LOWER, score, move);
+                return score;
+            }
+        }
+        return Double.NaN;
+    }
+
+    // Tests a node with its ProbCut model; returns the bound to cut with, or NaN to search it fully
+    private double probCut(P position, ProbCut.Model model, int ply, double alpha, double beta) {
+        if (beta != Double.POSITIVE_INFINITY) {
+            probCutTries++;
+            double bound = probCut.betaBound(model, beta);
+            double score = alphaBeta(position, model.shallowDepth(), ply, Math.nextDown(bound), bound);
+            if (aborted) {
+                return Double.NaN;
+            }
+            if (score >= bound) {
+                probCuts++;
+                return beta;
+            }
+        }
+        if (alpha != Double.NEGATIVE_INFINITY) {
+            probCutTries++;
+            double bound = probCut.alphaBound(model, alpha);
+            double score = alphaBeta(position, model.shallowDepth(), ply, bound, Math.nextUp(bound));
+            if (aborted) {
+                return Double.NaN;
+            }
+            if (score <= bound) {
+                probCuts++;
+                return alpha;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private boolean shouldStop() {
+        return (timed && System.nanoTime() - deadline >= 0)
+                || (stopCondition != null && stopCondition.getAsBoolean());
+    }
+
+    private static int tableMove(long entry) {
+        int move = TranspositionTable.move(entry);
+        return entry == 0 || move == TranspositionTable.NO_MOVE ? NO_MOVE : move;
+    }
+}
@@ -0,0 +1,70 @@
+package graph.search;
+
+/**
+ * A table of late move reductions: how many plies shallower a move is searched,
+ * by the remaining depth and the move's place in the ordered move list.
+ * With good move ordering the best move is almost always among the first few, so later moves are
+ * searched with less depth and only get the full depth when the reduced search says they beat alpha.
+ * Depths beyond the table use its last row, and move indexes beyond it its last column.
+ * The table is read-only during a search, so one instance can be shared by many engines.
+ */
+public class LateMoveReductions {
+    private final int[][] reductions;
+
+    /**
+     * Creates a table that reduces nothing
+     * @param maxDepth The deepest remaining depth with its own row
+     * @param maxMoves The number of move indexes with their own column
+     */
+    public LateMoveReductions(int maxDepth, int maxMoves) {
+        this.reductions = new int[maxDepth + 1][maxMoves];
+    }
+
+    /**
+     * Creates the usual logarithmic table, where the reduction grows with both the depth and the move index:
+     * base + ln(depth) * ln(index + 1) / divisor, rounded down.
+     * @param maxDepth The deepest remaining depth with its own row
+     * @param maxMoves The number of move indexes with their own column
+     * @param minDepth The smallest remaining depth that is reduced
+     * @param fullDepthMoves The number of leading moves that are never reduced
+     * @param base The reduction added to every reduced move
+     * @param divisor Larger values reduce less
+     * @return The table
+     */
+    public static LateMoveReductions logarithmic(int maxDepth, int maxMoves, int minDepth, int fullDepthMoves,
+                                                 double base, double divisor) {
+        LateMoveReductions table = new LateMoveReductions(maxDepth, maxMoves);
+        for (int depth = Math.max(2, minDepth); depth <= maxDepth; depth++) {
+            for (int index = fullDepthMoves; index < maxMoves; index++) {
+                int reduction = (int) (base + Math.log(depth) * Math.log(index + 1) / divisor);
+                // always leave at least one ply to search
+                table.set(depth, index, Math.max(0, Math.min(reduction, depth - 2)));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Sets one reduction
+     * @param depth The remaining depth
+     * @param index The move's index in the ordered move list
+     * @param reduction The plies to take off
+     * @throws IllegalArgumentException if the reduction is negative or leaves less than one ply
+     */
+    public void set(int depth, int index, int reduction) {
+        if (reduction < 0 || (reduction > 0 && reduction > depth - 2)) {
+            throw new IllegalArgumentException("Reduction must leave at least one ply");
+        }
+        reductions[depth][index] = reduction;
+    }
+
+    /**
+     * @param depth The remaining depth
+     * @param index The move's index in the ordered move list
+     * @return The plies to take off the move's search
+     */
+    public int reduction(int depth, int index) {
+        int[] row = reductions[Math.min(depth, reductions.length - 1)];
+        return row[Math.min(index, row.length - 1)];
+    }
+}
@@ -0,0 +1,139 @@
+package graph.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Helper threads for Lazy SMP parallel search.
+ * While the main thread runs its usual iterative deepening, each helper runs its own iterative
+ * deepening of the same position on its own engine, and all of them share one transposition table.
+ * The helpers' results are never used directly: their value is the table entries they leave behind,
+ * which give the main thread cutoffs and best moves for subtrees it has not searched yet.
+ * Odd helpers start one ply deeper, and every helper has its own move ordering tables,
+ * so the threads drift apart instead of searching the same nodes in lockstep.
+ * @param <P> The type of position searched
+ */
+public class LazySMP<P extends SearchPosition> implements AutoCloseable {
+    private final ExecutorService executor;
+    private final List<AlphaBeta<P>> helpers = new ArrayList<>();
+    private final List<Future<?>> running = new ArrayList<>();
+    private final int[] depthReached;
+    private volatile boolean stopped = true;
+
+    /**
+     * Creates the helper threads
+     * @param helperCount The number of helpers, one less than the total thread count
+     * @param engineFactory Creates each helper's engine; the engines must share the main engine's table
+     * @throws IllegalArgumentException if helperCount is negative
+     */
+    public LazySMP(int helperCount, Supplier<AlphaBeta<P>> engineFactory) {
+        if (helperCount < 0) {
+            throw new IllegalArgumentException("Helper count must not be negative");
+        }
+        this.executor = Executors.newFixedThreadPool(Math.max(1, helperCount), runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < helperCount; i++) {
+            AlphaBeta<P> engine = engineFactory.get();
+            engine.setStopCondition(() -> stopped);
+            helpers.add(engine);
+        }
+        this.depthReached = new int[helperCount];
+    }
+
+    /**
+     * @return The number of helper threads
+     */
+    public int getHelperCount() {
+        return helpers.size();
+    }
+
+    /**
+     * Starts every helper on a position. Each works on its own copy until {@link #stop()}.
+     * @param position The position the main thread is searching
+     * @param maxDepth The deepest iteration a helper runs
+     */
+    @SuppressWarnings("unchecked")
+    public void start(P position, int maxDepth) {
+        stop();
+        stopped = false;
+        for (int i = 0; i < helpers.size(); i++) {
+            AlphaBeta<P> engine = helpers.get(i);
+            P copy = (P) position.copy();
+            int helper = i;
+            int firstDepth = 1 + helper % 2;
+            depthReached[helper] = 0;
+            running.add(executor.submit(() -> {
+                for (int depth = firstDepth; depth <= maxDepth && !stopped; depth++) {
+                    engine.search(copy, depth);
+                    if (engine.isAborted()) {
+                        break;
+                    }
+                    depthReached[helper] = depth;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Stops the helpers and waits until they have all returned.
+     */
+    public void stop() {
+        stopped = true;
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        running.clear();
+    }
+
+    /**
+     * @param helper The helper index
+     * @return The last depth the helper completed in the current or last search
+     */
+    public int getDepthReached(int helper) {
+        return depthReached[helper];
+    }
+
+    /**
+     * @return The positions visited by all helpers since the last reset
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (AlphaBeta<P> engine : helpers) {
+            nodes += engine.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Resets the helpers' node counters. Only call while they are stopped.
+     */
+    public void resetNodes() {
+        for (AlphaBeta<P> engine : helpers) {
+            engine.resetNodes();
+        }
+    }
+
+    /**
+     * Stops the helpers and shuts down their threads.
+     */
+    @Override
+    public void close() {
+        stop();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package graph.search;
+
+/**
+ * The MTD(f) search driver: finds the minimax value with a series of zero-window alpha-beta searches.
+ * Each pass asks "is the value at least beta?" and moves an upper or lower bound, starting from a guess
+ * such as the previous iteration's score, until the bounds meet.
+ * The passes revisit the same tree, so they depend on the engine's transposition table to stay cheap;
+ * that makes the engine a memory-enhanced test and MTD(f) often visits fewer nodes than PVS.
+ * Scores should be values the table stores exactly, for example whole numbers.
+ * @param <P> The type of position searched
+ */
+public class MTDF<P extends SearchPosition> {
+    private final AlphaBeta<P> engine;
+
+    private int bestMove = AlphaBeta.NO_MOVE;
+    private int passes;
+
+    /**
+     * Creates a driver around an engine
+     * @param engine The engine that runs each zero-window search
+     * @throws IllegalArgumentException if the engine has no transposition table
+     */
+    public MTDF(AlphaBeta<P> engine) {
+        if (engine.getTranspositionTable() == null) {
+            throw new IllegalArgumentException("MTD(f) needs an engine with a transposition table");
+        }
+        this.engine = engine;
+    }
+
+    /**
+     * @return The engine running the zero-window searches
+     */
+    public AlphaBeta<P> getEngine() {
+        return engine;
+    }
+
+    /**
+     * Finds the minimax value of a position.
+     * If the engine hits its deadline the search stops early and the returned score is meaningless.
+     * @param position The position to search; it is restored before returning
+     * @param depth The number of plies to search
+     * @param guess The first estimate of the value, the closer the fewer passes
+     * @return The score for the side to move
+     */
+    public double search(P position, int depth, double guess) {
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+        double score = guess;
+        bestMove = AlphaBeta.NO_MOVE;
+        passes = 0;
+        while (lower < upper) {
+            double beta = score == lower ? Math.nextUp(score) : score;
+            score = engine.search(position, depth, Math.nextDown(beta), beta);
+            passes++;
+            if (engine.isAborted()) {
+                return score;
+            }
+            if (score < beta) {
+                upper = score;
+                if (bestMove == AlphaBeta.NO_MOVE) {
+                    // a failed-low pass only bounds every move from above; keep its move until a better proof
+                    bestMove = engine.getBestMove();
+                }
+            } else {
+                // the move that failed high is proven to reach the new lower bound
+                lower = score;
+                bestMove = engine.getBestMove();
+            }
+        }
+        return score;
+    }
+
+    /**
+     * @return The best root move of the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return The number of zero-window passes the last search took
+     */
+    public int getPasses() {
+        return passes;
+    }
+}
@@ -0,0 +1,268 @@
+package graph.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A preallocated store of Monte Carlo tree search nodes, kept as parallel primitive arrays and addressed
+ * by int handles, so a tree of millions of nodes is a handful of arrays instead of millions of objects.
+ * A node is its visit count, the sum of its results, its move, and the handle and number of its children,
+ * which are always allocated together in one contiguous block.
+ * Nodes are handed out from the front by a bump pointer, and {@link #reset()} frees them all at once
+ * by moving the pointer back, in constant time. When the arena is full, leaves simply stay leaves.
+ * To keep one subtree and free the rest, {@link #keepSubtree(int)} compacts it to the front in place.
+ * Statistics are updated atomically and a leaf is expanded by exactly one thread, so many threads
+ * can grow one tree without locks.
+ */
+public class MctsNodeArena {
+    /** Handle value meaning no node. */
+    public static final int NONE = -1;
+
+    /** Memory used by each node, in bytes. */
+    public static final int BYTES_PER_NODE = 4 * Integer.BYTES + Double.BYTES;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final VarHandle SIZE;
+
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(MctsNodeArena.class, "size", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // a child count while one thread builds the children; other threads treat the node as a leaf meanwhile
+    private static final int EXPANDING = -1;
+
+    private final int[] visits;
+    private final double[] valueSums;
+    private final int[] moves;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private volatile int size;
+
+    /**
+     * Creates an arena using at most the given amount of memory
+     * @param megabytes The arena size in MB
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public MctsNodeArena(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Arena size must be positive");
+        }
+        int capacity = (int) Math.min((long) megabytes * 1024 * 1024 / BYTES_PER_NODE, Integer.MAX_VALUE - 8);
+        this.visits = new int[capacity];
+        this.valueSums = new double[capacity];
+        this.moves = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new int[capacity];
+    }
+
+    /**
+     * @return The number of nodes the arena can hold
+     */
+    public int getCapacity() {
+        return visits.length;
+    }
+
+    /**
+     * @return The number of nodes allocated since the last reset
+     */
+    public int size() {
+        return Math.min(size, visits.length);
+    }
+
+    /**
+     * Frees every node at once. No thread may be using the arena.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Allocates a childless node to be the root of a tree
+     * @param move The move that led to the root, which is not used by the search
+     * @return The node's handle, or NONE if the arena is full
+     */
+    public int allocateRoot(int move) {
+        int node = (int) SIZE.getAndAdd(this, 1);
+        if (node >= visits.length) {
+            return NONE;
+        }
+        clear(node, move);
+        return node;
+    }
+
+    /**
+     * Gives a leaf one child per move, in list order. When several threads try to expand the same leaf at once,
+     * exactly one does so, and the others carry on as if it were still a leaf until its children are published.
+     * @param node The leaf to expand
+     * @param moveList The moves of the leaf's position
+     * @return Whether this call expanded the node; false if another thread did, or the arena is full
+     */
+    public boolean expand(int node, MoveList moveList) {
+        int count = moveList.size();
+        // once full, stop claiming space, so the pointer cannot run on and overflow
+        if (count == 0 || size > visits.length - count || !INTS.compareAndSet(childCount, node, 0, EXPANDING)) {
+            return false;
+        }
+        int first = (int) SIZE.getAndAdd(this, count);
+        if (first > visits.length - count) {
+            INTS.setRelease(childCount, node, 0);
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            clear(first + i, moveList.get(i));
+        }
+        firstChild[node] = first;
+        // publishes the children together with everything written above
+        INTS.setRelease(childCount, node, count);
+        return true;
+    }
+
+    /**
+     * Keeps one subtree with all its statistics and frees every other node, compacting the subtree to the front
+     * of the arena. The subtree is copied level by level into the free space above the live nodes, each block of
+     * children staying contiguous, and then moved down, so no second arena is needed. A node whose children no longer
+     * fit in the free space is kept as a leaf. No thread may be using the arena.
+     * @param node The root of the subtree to keep
+     * @return The handle of the kept root, which is 0
+     */
+    public int keepSubtree(int node) {
+        int base = size();
+        if (base == visits.length) {
+            // no free space to copy into, so only the root's statistics survive
+            int rootVisits = visits[node];
+            double rootValue = valueSums[node];
+            int move = moves[node];
+            reset();
+            int root = allocateRoot(move);
+            visits[root] = rootVisits;
+            valueSums[root] = rootValue;
+            return root;
+        }
+        copyNode(node, base);
+        // until a copied node is scanned, its first child field holds the handle of the node it copies
+        firstChild[base] = node;
+        int end = base + 1;
+        for (int scan = base; scan < end; scan++) {
+            int from = firstChild[scan];
+            int count = Math.max(0, childCount[from]);
+            firstChild[scan] = NONE;
+            if (count == 0 || end > visits.length - count) {
+                continue;
+            }
+            int sourceFirst = firstChild[from];
+            for (int i = 0; i < count; i++) {
+                copyNode(sourceFirst + i, end + i);
+                firstChild[end + i] = sourceFirst + i;
+            }
+            // handles as they will be once the copy is moved down to the front
+            firstChild[scan] = end - base;
+            childCount[scan] = count;
+            end += count;
+        }
+        int kept = end - base;
+        System.arraycopy(visits, base, visits, 0, kept);
+        System.arraycopy(valueSums, base, valueSums, 0, kept);
+        System.arraycopy(moves, base, moves, 0, kept);
+        System.arraycopy(firstChild, base, firstChild, 0, kept);
+        System.arraycopy(childCount, base, childCount, 0, kept);
+        size = kept;
+        return 0;
+    }
+
+    private void copyNode(int from, int to) {
+        visits[to] = visits[from];
+        valueSums[to] = valueSums[from];
+        moves[to] = moves[from];
+        childCount[to] = 0;
+    }
+
+    private void clear(int node, int move) {
+        visits[node] = 0;
+        valueSums[node] = 0;
+        moves[node] = move;
+        firstChild[node] = NONE;
+        childCount[node] = 0;
+    }
+
+    /**
+     * @param node A node handle
+     * @return The number of children, 0 for a leaf
+     */
+    public int getChildCount(int node) {
+        return Math.max(0, (int) INTS.getAcquire(childCount, node));
+    }
+
+    /**
+     * @param node A node handle with children
+     * @return The handle of the first child; the others follow it directly
+     */
+    public int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * @param node A node handle
+     * @return The move that led to the node
+     */
+    public int getMove(int node) {
+        return moves[node];
+    }
+
+    /**
+     * @param node A node handle
+     * @return The number of visits, including those of simulations still in progress
+     */
+    public int getVisits(int node) {
+        return (int) INTS.getOpaque(visits, node);
+    }
+
+    /**
+     * Adds to a node's visit count atomically; a negative count takes back visits added earlier
+     * @param node A node handle
+     * @param count The visits to add
+     * @return The visit count before the addition
+     */
+    public int addVisits(int node, int count) {
+        return (int) INTS.getAndAdd(visits, node, count);
+    }
+
+    /**
+     * @param node A node handle
+     * @return The sum of the results backed up through the node
+     */
+    public double getValueSum(int node) {
+        return (double) DOUBLES.getOpaque(valueSums, node);
+    }
+
+    /**
+     * Adds a result to a node atomically
+     * @param node A node handle
+     * @param value The result to add
+     */
+    public void addValue(int node, double value) {
+        double current;
+        do {
+            current = (double) DOUBLES.getOpaque(valueSums, node);
+        } while (!DOUBLES.weakCompareAndSet(valueSums, node, current, current + value));
+    }
+
+    /**
+     * Calculates the UCB1 value of a child for selection
+     * @param node The child's handle
+     * @param parentVisits The parent's visit count
+     * @param explorationParam The exploration parameter
+     * @return The UCB1 value, infinite for an unvisited node
+     */
+    public double getUCB1(int node, int parentVisits, double explorationParam) {
+        int n = getVisits(node);
+        if (n == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return getValueSum(node) / n + explorationParam * Math.sqrt(Math.log(parentVisits) / n);
+    }
+}
@@ -1,127 +1,338 @@
 package graph.search;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.function.Function;
-import java.util.function.BiFunction;
+import java.util.SplittableRandom;
 
 /**
- * Implements the Monte Carlo Tree Search algorithm.
+ * Implements the Monte Carlo Tree Search algorithm over a {@link SearchPosition}.
+ * Each simulation walks down the tree by UCB1, playing the moves on the position in place,
+ * expands the leaf it reaches with one child per move, plays the game out with a {@link Playout}
+ * and takes the moves back while adding the result to every node on the way.
+ * A leaf is only expanded on its second visit, so single-visit nodes cost no children.
+ * A forced pass is an ordinary move of the position, so the sides keep alternating down the tree.
+ * Each node holds its move, and its score is the sum of results for the side that played that move.
+ * The nodes live in a {@link MctsNodeArena}, so the tree costs no objects and is freed at once between searches.
+ * A search can instead start from the part of the last tree that is still relevant, see
+ * {@link #searchReusingTree(SearchPosition, int)}, which keeps the simulations already spent on that line.
+ * Every node is counted as visited as soon as a simulation passes through it, before its result is known,
+ * which reads as a loss until the result arrives: this virtual loss steers simultaneous simulations on a shared
+ * tree, as in {@link ParallelMonteCarloTreeSearch}, down different lines.
+ * An instance keeps per-search scratch state and must only be used by one thread at a time.
+ * @param <P> The type of position searched
  */
-public class MonteCarloTreeSearch {
-    private static final Random random = new Random();
-    
-    /**
-     * Performs Monte Carlo Tree Search on the game tree.
-     * @param <T> The type of game state
-     * @param root The root node of the game tree
-     * @param simulations Number of simulations to run
+public class MonteCarloTreeSearch<P extends SearchPosition> {
+    /** Best move value when the root has no moves. */
+    public static final int NO_MOVE = -1;
+
+    /** Visits a simulation adds to each node on its way down, until its result replaces them with one. */
+    public static final int DEFAULT_VIRTUAL_LOSS = 1;
+
+    // the deepest line a simulation can descend
+    private static final int MAX_PLY = AlphaBeta.MAX_PLY;
+
+    /** Size of the node arena an engine allocates when none is given, in MB: about 350 thousand nodes. */
+    public static final int DEFAULT_ARENA_MB = 8;
+
+    /** How many moves past the last search's root a position can be for its subtree to be reused. */
+    public static final int REUSE_PLIES = 2;
+
+    // simulations between clock reads, a power of two
+    private static final int CHECK_INTERVAL = 64;
+
+    private final Playout<P> playout;
+    private final double explorationParam;
+    private final MoveList moves;
+    private SplittableRandom random = new SplittableRandom();
+    private int virtualLoss = DEFAULT_VIRTUAL_LOSS;
+
+    private MctsNodeArena arena;
+    private int root = MctsNodeArena.NONE;
+    private P rootPosition;
+    private int reusedVisits;
+    // the nodes of the current simulation's line, root first, for backpropagation
+    private final int[] path = new int[MAX_PLY];
+    private long simulations;
+
+    private boolean timed;
+    private long deadline;
+
+    /**
+     * Creates a search engine
+     * @param playout Plays a position out to the end of the game
+     * @param maxMoves The largest number of moves a position can have
      * @param explorationParam The exploration parameter for UCB1
-     * @param simulator Function to simulate a random game from a state
-     * @param evaluator Function to evaluate the result of a simulation
-     */
-    public static <T> void search(
-            GameTreeNode<T> root,
-            int simulations,
-            double explorationParam,
-            Function<T, T> simulator,
-            BiFunction<T, Boolean, Double> evaluator) {
-        
+     */
+    public MonteCarloTreeSearch(Playout<P> playout, int maxMoves, double explorationParam) {
+        this.playout = playout;
+        this.explorationParam = explorationParam;
+        this.moves = new MoveList(maxMoves);
+    }
+
+    /**
+     * Reseeds the random source used for playouts and for choosing among unvisited children,
+     * so that searches can be repeated exactly
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sets the virtual loss: how many lost visits a simulation adds to each node it passes on the way down,
+     * replaced by one real visit when its result is backed up. Larger values spread parallel simulations wider.
+     * @param virtualLoss The visits to add, at least 1
+     * @throws IllegalArgumentException if virtualLoss is less than 1
+     */
+    public void setVirtualLoss(int virtualLoss) {
+        if (virtualLoss < 1) {
+            throw new IllegalArgumentException("Virtual loss must be at least 1");
+        }
+        this.virtualLoss = virtualLoss;
+    }
+
+    /**
+     * @return The visits a simulation adds to each node on its way down
+     */
+    public int getVirtualLoss() {
+        return virtualLoss;
+    }
+
+    /**
+     * Makes later searches stop once {@link System#nanoTime()} reaches the deadline
+     * @param deadline The deadline as a System.nanoTime() value
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+        this.timed = true;
+    }
+
+    /**
+     * Lets later searches run all their simulations.
+     */
+    public void clearDeadline() {
+        this.timed = false;
+    }
+
+    /**
+     * Makes the engine keep its tree in the given arena, which several engines may share to grow one tree.
+     * The engine's last tree is forgotten.
+     * @param arena The node arena
+     */
+    public void setArena(MctsNodeArena arena) {
+        this.arena = arena;
+        this.root = MctsNodeArena.NONE;
+    }
+
+    /**
+     * @return The arena holding the tree, allocated at its default size on first use
+     */
+    public MctsNodeArena getArena() {
+        if (arena == null) {
+            arena = new MctsNodeArena(DEFAULT_ARENA_MB);
+        }
+        return arena;
+    }
+
+    /**
+     * Runs simulations from a fresh tree rooted at a position, until they are done or the deadline passes.
+     * The nodes of the previous tree are freed first.
+     * @param position The position to search; it is restored before returning
+     * @param simulations The most simulations to run
+     * @return The root's handle in the arena, whose children hold the root moves and their statistics
+     */
+    public int search(P position, int simulations) {
+        MctsNodeArena arena = getArena();
+        arena.reset();
+        root = arena.allocateRoot(NO_MOVE);
+        reusedVisits = 0;
+        return run(position, simulations);
+    }
+
+    /**
+     * Runs simulations like {@link #search(SearchPosition, int)}, but if the position is the root of the last search
+     * or follows it within REUSE_PLIES moves, such as our move and the opponent's reply, the matching subtree of the
+     * last tree becomes the new root with its statistics, and the rest of the tree is freed. Otherwise a fresh tree
+     * is grown. The kept subtree is compacted in place, see {@link MctsNodeArena#keepSubtree(int)}.
+     * @param position The position to search; it is restored before returning
+     * @param simulations The most simulations to run, on top of the visits kept
+     * @return The root's handle in the arena, whose children hold the root moves and their statistics
+     */
+    public int searchReusingTree(P position, int simulations) {
+        int kept = root == MctsNodeArena.NONE ? MctsNodeArena.NONE
+                : findDescendant(arena, root, rootPosition.copy(), position.getKey(), REUSE_PLIES);
+        if (kept == MctsNodeArena.NONE) {
+            return search(position, simulations);
+        }
+        root = arena.keepSubtree(kept);
+        reusedVisits = arena.getVisits(root);
+        return run(position, simulations);
+    }
+
+    /**
+     * Finds the node of a position in a tree, searching at most the given number of moves below a node
+     * @param arena The arena holding the tree
+     * @param node The node to search below
+     * @param position The node's position; it is restored before returning
+     * @param key The key of the position to find
+     * @param plies The most moves to search below the node
+     * @return The handle of the position's node, or NONE if it was not found
+     */
+    static int findDescendant(MctsNodeArena arena, int node, SearchPosition position, long key, int plies) {
+        if (position.getKey() == key) {
+            return node;
+        }
+        int found = MctsNodeArena.NONE;
+        int first = arena.getFirstChild(node);
+        int end = first + arena.getChildCount(node);
+        for (int child = first; child < end && plies > 0 && found == MctsNodeArena.NONE; child++) {
+            position.makeMove(arena.getMove(child));
+            found = findDescendant(arena, child, position, key, plies - 1);
+            position.undoMove();
+        }
+        return found;
+    }
+
+    // Runs simulations from the root, which is the given position
+    @SuppressWarnings("unchecked")
+    private int run(P position, int simulations) {
+        rootPosition = (P) position.copy();
         for (int i = 0; i < simulations; i++) {
-            // Selection
-            GameTreeNode<T> selectedNode = select(root, explorationParam);
-            
-            // Expansion
-            GameTreeNode<T> expandedNode = expand(selectedNode);
-            
-            // Simulation
-            T simulatedResult = simulator.apply(expandedNode.getData());
-            
-            // Backpropagation
-            backpropagate(expandedNode, simulatedResult, evaluator);
+            if ((i & (CHECK_INTERVAL - 1)) == CHECK_INTERVAL - 1 && isPastDeadline()) {
+                break;
+            }
+            simulate(root, position);
         }
+        return root;
     }
-    
+
     /**
-     * Selects a node to expand using UCB1.
-     * @param <T> The type of game state
-     * @param node The current node
-     * @param explorationParam The exploration parameter for UCB1
-     * @return The selected node
-     */
-    private static <T> GameTreeNode<T> select(GameTreeNode<T> node, double explorationParam) {
-        while (!node.isLeaf()) {
-            if (node.getChildren().stream().anyMatch(child -> ((GameTreeNode<T>)child).getVisits() == 0)) {
-                // If there are unvisited children, select one of them
-                List<GameTreeNode<T>> unvisitedChildren = new ArrayList<>();
-                for (GameTreeNode<T> child : node.getChildren()) {
-                    if (child.getVisits() == 0) {
-                        unvisitedChildren.add(child);
-                    }
-                }
-                return unvisitedChildren.get(random.nextInt(unvisitedChildren.size()));
+     * @return The visits the root kept from the previous search, 0 if the last search grew a fresh tree
+     */
+    public int getReusedVisits() {
+        return reusedVisits;
+    }
+
+    /**
+     * @return Whether a deadline is set and has passed
+     */
+    boolean isPastDeadline() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * @return The root handle of the last search, or NONE before the first one
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * @return The most visited root move of the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return root == MctsNodeArena.NONE ? NO_MOVE : mostVisitedMove(arena, root);
+    }
+
+    /**
+     * @param arena The arena holding a search tree
+     * @param root The root of the tree
+     * @return The move of the root's most visited child, or NO_MOVE if it has none
+     */
+    public static int mostVisitedMove(MctsNodeArena arena, int root) {
+        int best = MctsNodeArena.NONE;
+        int first = arena.getFirstChild(root);
+        int end = first + arena.getChildCount(root);
+        for (int child = first; child < end; child++) {
+            if (best == MctsNodeArena.NONE || arena.getVisits(child) > arena.getVisits(best)) {
+                best = child;
             }
-            
-            // Select best child according to UCB1
-            GameTreeNode<T> bestChild = null;
-            double bestUCB1 = Double.NEGATIVE_INFINITY;
-            
-            for (GameTreeNode<T> child : node.getChildren()) {
-                double ucb1 = child.getUCB1(explorationParam);
-                if (ucb1 > bestUCB1) {
-                    bestUCB1 = ucb1;
-                    bestChild = child;
-                }
+        }
+        return best == MctsNodeArena.NONE ? NO_MOVE : arena.getMove(best);
+    }
+
+    /**
+     * @return The number of simulations run since the last reset
+     */
+    public long getSimulations() {
+        return simulations;
+    }
+
+    /**
+     * Resets the simulation counter.
+     */
+    public void resetSimulations() {
+        simulations = 0;
+    }
+
+    /**
+     * Runs one simulation on a tree in this engine's arena that other threads may be searching at the same time,
+     * each with its own engine and its own copy of the root position.
+     * @param root The root of the tree
+     * @param position The root position; it is restored before returning
+     */
+    void simulate(int root, P position) {
+        MctsNodeArena arena = this.arena;
+        int node = root;
+        int seen = arena.addVisits(node, virtualLoss);
+        int depth = 0;
+        path[0] = node;
+
+        // Selection
+        while (arena.getChildCount(node) > 0 && depth < MAX_PLY - 1) {
+            node = select(arena, node);
+            seen = arena.addVisits(node, virtualLoss);
+            position.makeMove(arena.getMove(node));
+            path[++depth] = node;
+        }
+
+        // Expansion, of the root at once and of other leaves once they have been visited before;
+        // if another thread expanded the leaf first, or the arena is full, its children are used if there are any
+        if ((node == root || seen > 0) && depth < MAX_PLY - 1 && position.generateMoves(moves) > 0) {
+            arena.expand(node, moves);
+            int count = arena.getChildCount(node);
+            if (count > 0) {
+                node = arena.getFirstChild(node) + random.nextInt(count);
+                arena.addVisits(node, virtualLoss);
+                position.makeMove(arena.getMove(node));
+                path[++depth] = node;
             }
-            
-            if (bestChild != null) {
-                node = bestChild;
-            } else {
-                break;
+        }
+
+        // Simulation, scored for the side to move after the leaf's move, which is not the side that played it
+        double result = 1 - playout.play(position, random);
+
+        // Backpropagation, turning each node's virtual loss into one real visit
+        for (int ply = depth; ply >= 0; ply--) {
+            arena.addVisits(path[ply], 1 - virtualLoss);
+            arena.addValue(path[ply], result);
+            result = 1 - result;
+        }
+        for (; depth > 0; depth--) {
+            position.undoMove();
+        }
+        simulations++;
+    }
+
+    // Picks an unvisited child if there is one, starting the scan at random, otherwise the best child by UCB1
+    private int select(MctsNodeArena arena, int node) {
+        int first = arena.getFirstChild(node);
+        int count = arena.getChildCount(node);
+        int start = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int child = first + (start + i) % count;
+            if (arena.getVisits(child) == 0) {
+                return child;
             }
         }
-        
-        return node;
-    }
-    
-    /**
-     * Expands the selected node by adding a child.
-     * @param <T> The type of game state
-     * @param node The node to expand
-     * @return The newly created child node
-     */
-    private static <T> GameTreeNode<T> expand(GameTreeNode<T> node) {
-        // In a real implementation, we would generate all possible moves
-        // and add them as children. For this skeleton, we just add a dummy child.
-        GameTreeNode<T> child = new GameTreeNode<>(node.getData());
-        node.addChild(child);
-        return child;
-    }
-    
-    /**
-     * Backpropagates the simulation result up the tree.
-     * @param <T> The type of game state
-     * @param node The leaf node that was expanded
-     * @param result The result of the simulation
-     * @param evaluator Function to evaluate the simulation result
-     */
-    private static <T> void backpropagate(
-            GameTreeNode<T> node, 
-            T result, 
-            BiFunction<T, Boolean, Double> evaluator) {
-        
-        boolean isMaximizingPlayer = true; // Start with maximizing player at the leaf
-        
-        GameTreeNode<T> current = node;
-        while (current != null) {
-            current.incrementVisits();
-            double score = evaluator.apply(result, isMaximizingPlayer);
-            current.addScore(score);
-            
-            current = (GameTreeNode<T>) current.getParent();
-            isMaximizingPlayer = !isMaximizingPlayer; // Alternate players
+        int parentVisits = arena.getVisits(node);
+        int bestChild = first;
+        double bestUCB1 = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count; child++) {
+            double ucb1 = arena.getUCB1(child, parentVisits, explorationParam);
+            if (ucb1 > bestUCB1) {
+                bestUCB1 = ucb1;
+                bestChild = child;
+            }
         }
+        return bestChild;
     }
-}
\ No newline at end of file
+}
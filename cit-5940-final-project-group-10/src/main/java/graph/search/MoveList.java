@@ -0,0 +1,95 @@
+package graph.search;
+
+/**
+ * A reusable list of moves encoded as ints, backed by a fixed array.
+ * Search code keeps one list per ply and refills it, so generating moves never allocates.
+ */
+public class MoveList {
+    private final int[] moves;
+    private int size;
+
+    /**
+     * Creates an empty move list
+     * @param capacity The maximum number of moves the list can hold
+     */
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    /**
+     * Removes all moves, keeping the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a move
+     * @param move The move to add
+     * @throws IndexOutOfBoundsException if the list is full
+     */
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    /**
+     * @param index The position in the list
+     * @return The move at that position
+     */
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at a position
+     * @param index The position in the list
+     * @param move The new move
+     */
+    public void set(int index, int move) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        moves[index] = move;
+    }
+
+    /**
+     * Exchanges two moves, used when reordering moves in place
+     * @param i The first position
+     * @param j The second position
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    /**
+     * @param move The move to look for
+     * @return The position of the move, or -1 if it is not in the list
+     */
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of moves in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Whether the list has no moves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
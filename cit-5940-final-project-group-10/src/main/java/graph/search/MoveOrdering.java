@@ -0,0 +1,129 @@
+package graph.search;
+
+import java.util.Arrays;
+
+/**
+ * Orders moves so that alpha-beta tries the likely best move first.
+ * The transposition table move comes first, then the two killer moves of the ply
+ * (moves that recently caused a cutoff among siblings), then the rest by their history score,
+ * which grows every time a move causes a cutoff anywhere in the tree.
+ * An instance belongs to one search thread.
+ */
+public class MoveOrdering {
+    /** Number of killer moves remembered per ply. */
+    public static final int KILLERS = 2;
+
+    private static final long TABLE_MOVE_SCORE = Long.MAX_VALUE;
+    private static final long KILLER_SCORE = Long.MAX_VALUE / 2;
+
+    private final long[] history;
+    private final int[][] killers;
+    private final long[] sortScores;
+
+    /**
+     * Creates empty move ordering tables
+     * @param moveRange One more than the largest move value
+     * @param maxPly The deepest ply killers are kept for
+     */
+    public MoveOrdering(int moveRange, int maxPly) {
+        this.history = new long[moveRange];
+        this.killers = new int[maxPly][KILLERS];
+        this.sortScores = new long[moveRange];
+        clearKillers();
+    }
+
+    /**
+     * Sorts a move list in place, best candidates first.
+     * @param moves The moves to sort
+     * @param ply The distance from the root, selecting the killer slots
+     * @param tableMove The transposition table move, or any value not in the list
+     */
+    public void order(MoveList moves, int ply, int tableMove) {
+        int size = moves.size();
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            long score;
+            if (move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (move == plyKillers[0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == plyKillers[1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[move];
+            }
+            sortScores[i] = score;
+        }
+        // insertion sort, move lists are short and often nearly sorted already
+        for (int i = 1; i < size; i++) {
+            int move = moves.get(i);
+            long score = sortScores[i];
+            int j = i - 1;
+            while (j >= 0 && sortScores[j] < score) {
+                sortScores[j + 1] = sortScores[j];
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            sortScores[j + 1] = score;
+            moves.set(j + 1, move);
+        }
+    }
+
+    /**
+     * Records a move that caused a beta cutoff.
+     * @param move The move
+     * @param ply The distance from the root
+     * @param depth The remaining depth, deeper cutoffs weigh more
+     */
+    public void recordCutoff(int move, int ply, int depth) {
+        history[move] += (long) depth * depth;
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+    }
+
+    /**
+     * @param move A move value
+     * @return The history score of the move
+     */
+    public long getHistory(int move) {
+        return history[move];
+    }
+
+    /**
+     * @param ply The distance from the root
+     * @param slot The killer slot, 0 for the most recent
+     * @return The killer move, or -1 if the slot is empty
+     */
+    public int getKiller(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    /**
+     * Prepares for the search of a new root position: killers no longer refer to the same plies,
+     * and history is halved so recent cutoffs count more than old ones.
+     */
+    public void age() {
+        for (int move = 0; move < history.length; move++) {
+            history[move] >>= 1;
+        }
+        clearKillers();
+    }
+
+    /**
+     * Empties all tables.
+     */
+    public void clear() {
+        Arrays.fill(history, 0);
+        clearKillers();
+    }
+
+    private void clearKillers() {
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, -1);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package graph.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Parallel alpha-beta using the Young Brothers Wait Concept on a {@link ForkJoinPool}.
+ * At each node deep enough to be worth splitting, the eldest brother (the first, best-ordered move)
+ * is searched alone to establish a bound. The younger brothers are then searched in parallel
+ * with a shared alpha that rises as results come in. When one of them fails high, every sibling
+ * subtree still running is cancelled.
+ * Nodes with little depth left are searched sequentially by a per-thread {@link AlphaBeta},
+ * and all threads share one transposition table.
+ * @param <P> The type of position searched
+ */
+public class ParallelAlphaBeta<P extends SearchPosition> implements AutoCloseable {
+    /** Nodes with at most this much depth left are searched sequentially by default. */
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    private final ForkJoinPool pool;
+    private final ToDoubleFunction<P> evaluator;
+    private final int maxMoves;
+    private final TranspositionTable table;
+    private final ThreadLocal<AlphaBeta<P>> engines;
+    private final List<AlphaBeta<P>> allEngines = new CopyOnWriteArrayList<>();
+    private final LongAdder splitNodes = new LongAdder();
+
+    private Consumer<AlphaBeta<P>> engineSetup = engine -> { };
+    private int splitDepth = DEFAULT_SPLIT_DEPTH;
+    private volatile int bestMove = AlphaBeta.NO_MOVE;
+
+    /**
+     * A node whose younger brothers are being searched in parallel.
+     * Cancelling it cancels every split below it, since they check their ancestors.
+     */
+    private static final class Split {
+        private final Split parent;
+        private final AtomicLong alphaBits;
+        private volatile boolean cancelled;
+
+        Split(Split parent, double alpha) {
+            this.parent = parent;
+            this.alphaBits = new AtomicLong(Double.doubleToRawLongBits(alpha));
+        }
+
+        boolean isCancelled() {
+            for (Split split = this; split != null; split = split.parent) {
+                if (split.cancelled) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        double alpha() {
+            return Double.longBitsToDouble(alphaBits.get());
+        }
+
+        void raiseAlpha(double score) {
+            long current = alphaBits.get();
+            while (score > Double.longBitsToDouble(current)
+                    && !alphaBits.compareAndSet(current, Double.doubleToRawLongBits(score))) {
+                current = alphaBits.get();
+            }
+        }
+    }
+
+    /**
+     * Searches one younger brother on its own copy of the parent position.
+     */
+    @SuppressWarnings("serial")
+    private final class Sibling extends RecursiveAction {
+        private final P position;
+        private final int move;
+        private final int depth;
+        private final int ply;
+        private final double beta;
+        private final Split split;
+        private double score;
+        private double alpha;
+        private boolean completed;
+
+        @SuppressWarnings("unchecked")
+        Sibling(P parent, int move, int depth, int ply, double beta, Split split) {
+            this.position = (P) parent.copy();
+            this.move = move;
+            this.depth = depth;
+            this.ply = ply;
+            this.beta = beta;
+            this.split = split;
+        }
+
+        @Override
+        protected void compute() {
+            if (split.isCancelled()) {
+                return;
+            }
+            position.makeMove(move);
+            alpha = split.alpha();
+            score = -node(position, depth - 1, ply + 1, -beta, -alpha, split);
+            if (split.isCancelled()) {
+                return;
+            }
+            completed = true;
+            split.raiseAlpha(score);
+            if (score >= beta) {
+                split.cancelled = true; // Cutoff, the other brothers are no longer needed
+            }
+        }
+    }
+
+    /**
+     * Creates a parallel search with its own thread pool
+     * @param evaluator Scores a position at the depth limit for the side to move; called from many threads
+     * @param maxMoves The largest number of moves a position can have
+     * @param table The transposition table shared by all threads, or null
+     * @param threads The number of worker threads
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public ParallelAlphaBeta(ToDoubleFunction<P> evaluator, int maxMoves, TranspositionTable table, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.evaluator = evaluator;
+        this.maxMoves = maxMoves;
+        this.table = table;
+        this.engines = ThreadLocal.withInitial(this::createEngine);
+    }
+
+    private AlphaBeta<P> createEngine() {
+        AlphaBeta<P> engine = new AlphaBeta<>(evaluator, maxMoves);
+        engine.setTranspositionTable(table);
+        engineSetup.accept(engine);
+        allEngines.add(engine);
+        return engine;
+    }
+
+    /**
+     * Sets options, such as move ordering, for the sequential engine each worker thread creates.
+     * Must be called before the first search.
+     * @param engineSetup Applies the options to a fresh engine
+     */
+    public void setEngineSetup(Consumer<AlphaBeta<P>> engineSetup) {
+        this.engineSetup = engineSetup;
+    }
+
+    /**
+     * Sets the depth at and below which nodes are searched sequentially.
+     * Lower values split more and balance better, higher values waste less work on cancelled subtrees.
+     * @param splitDepth The sequential depth, at least 1
+     */
+    public void setSplitDepth(int splitDepth) {
+        this.splitDepth = Math.max(1, splitDepth);
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Searches a position with a full window.
+     * @param position The position to search; it is not modified
+     * @param depth The number of plies to search
+     * @return The score for the side to move
+     */
+    public double search(P position, int depth) {
+        @SuppressWarnings("unchecked")
+        P root = (P) position.copy();
+        bestMove = AlphaBeta.NO_MOVE;
+        return pool.invoke(ForkJoinTask.adapt(() ->
+                node(root, depth, 0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null)));
+    }
+
+    /**
+     * @return The best root move of the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return The number of positions visited by all threads since the last reset
+     */
+    public long getNodes() {
+        long nodes = splitNodes.sum();
+        for (AlphaBeta<P> engine : allEngines) {
+            nodes += engine.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Resets the node counters of all threads. Only call between searches.
+     */
+    public void resetNodes() {
+        splitNodes.reset();
+        for (AlphaBeta<P> engine : allEngines) {
+            engine.resetNodes();
+        }
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private double node(P position, int depth, int ply, double alpha, double beta, Split parent) {
+        if (depth <= splitDepth) {
+            AlphaBeta<P> engine = engines.get();
+            engine.setStopCondition(parent == null ? null : parent::isCancelled);
+            double score = engine.search(position, depth, alpha, beta);
+            if (ply == 0) {
+                bestMove = engine.getBestMove();
+            }
+            return score;
+        }
+
+        splitNodes.increment();
+        MoveList moves = new MoveList(maxMoves);
+        if (position.generateMoves(moves) == 0) {
+            return position.terminalScore();
+        }
+
+        long key = position.getKey();
+        if (table != null) {
+            long entry = table.probe(key);
+            if (entry != 0) {
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    double stored = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && stored >= beta)
+                            || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+                        return stored;
+                    }
+                }
+                int first = moves.indexOf(TranspositionTable.move(entry));
+                if (first > 0) {
+                    moves.swap(0, first);
+                }
+            }
+        }
+
+        // the eldest brother is searched alone, so the others start with a real bound
+        double originalAlpha = alpha;
+        int localBest = moves.get(0);
+        position.makeMove(localBest);
+        double bestScore = -node(position, depth - 1, ply + 1, -beta, -alpha, parent);
+        position.undoMove();
+        if (parent != null && parent.isCancelled()) {
+            return 0;
+        }
+        alpha = Math.max(alpha, bestScore);
+
+        if (alpha < beta && moves.size() > 1) {
+            Split split = new Split(parent, alpha);
+            List<Sibling> siblings = new ArrayList<>(moves.size() - 1);
+            for (int i = 1; i < moves.size(); i++) {
+                siblings.add(new Sibling(position, moves.get(i), depth, ply, beta, split));
+            }
+            ForkJoinTask.invokeAll(siblings);
+            if (parent != null && parent.isCancelled()) {
+                return 0;
+            }
+            for (Sibling sibling : siblings) {
+                // a score at or below the alpha it was searched with is only an upper bound, and can't be the best
+                if (sibling.completed && sibling.score > sibling.alpha && sibling.score > bestScore) {
+                    bestScore = sibling.score;
+                    localBest = sibling.move;
+                }
+            }
+            if (bestScore <= originalAlpha) {
+                // every move failed low, so the node's upper bound is the highest of the moves' upper bounds,
+                // or alpha itself if one of them did not finish
+                for (Sibling sibling : siblings) {
+                    if (!sibling.completed) {
+                        bestScore = originalAlpha;
+                        break;
+                    }
+                    bestScore = Math.max(bestScore, sibling.score);
+                }
+            }
+        }
+
+        if (ply == 0) {
+            bestMove = localBest;
+        }
+        if (table != null) {
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER
+                    : bestScore >= beta ? TranspositionTable.LOWER
+                    : TranspositionTable.EXACT;
+            table.store(key, depth, bound, bestScore, localBest);
+        }
+        return bestScore;
+    }
+}
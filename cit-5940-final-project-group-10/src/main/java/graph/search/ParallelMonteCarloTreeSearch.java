@@ -0,0 +1,224 @@
+package graph.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tree-parallel Monte Carlo tree search: worker threads run simulations on one shared tree.
+ * Each worker has its own {@link MonteCarloTreeSearch} engine, random source and copy of the root position;
+ * the only shared state is the tree, held in one {@link MctsNodeArena}, whose statistics are updated atomically
+ * and whose leaves are expanded by publishing all children at once, so no locks are taken. Virtual loss makes
+ * a line that a worker is simulating look worse to the others until its result is in, which spreads the workers
+ * across branches.
+ * A search is not repeatable, as the workers' interleaving changes the tree.
+ * @param <P> The type of position searched
+ */
+public class ParallelMonteCarloTreeSearch<P extends SearchPosition> implements AutoCloseable {
+    // simulations between clock reads, a power of two
+    private static final int CHECK_INTERVAL = 64;
+
+    private final ExecutorService executor;
+    private final List<MonteCarloTreeSearch<P>> workers = new ArrayList<>();
+    private final MctsNodeArena arena;
+    private int root = MctsNodeArena.NONE;
+    private P rootPosition;
+    private int reusedVisits;
+
+    /**
+     * Creates the worker engines and their threads, sharing an arena of the default size
+     * @param threads The number of worker threads
+     * @param engineFactory Creates one engine per worker
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public ParallelMonteCarloTreeSearch(int threads, Supplier<MonteCarloTreeSearch<P>> engineFactory) {
+        this(threads, engineFactory, MonteCarloTreeSearch.DEFAULT_ARENA_MB);
+    }
+
+    /**
+     * Creates the worker engines and their threads
+     * @param threads The number of worker threads
+     * @param engineFactory Creates one engine per worker
+     * @param arenaMegabytes The size of the arena the workers share, in MB
+     * @throws IllegalArgumentException if threads or the arena size is less than 1
+     */
+    public ParallelMonteCarloTreeSearch(int threads, Supplier<MonteCarloTreeSearch<P>> engineFactory,
+                                        int arenaMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.arena = new MctsNodeArena(arenaMegabytes);
+        for (int i = 0; i < threads; i++) {
+            MonteCarloTreeSearch<P> worker = engineFactory.get();
+            worker.setArena(arena);
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getThreads() {
+        return workers.size();
+    }
+
+    /**
+     * @return The arena holding the shared tree
+     */
+    public MctsNodeArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Seeds each worker differently from one seed
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        for (int i = 0; i < workers.size(); i++) {
+            workers.get(i).setSeed(seed + i);
+        }
+    }
+
+    /**
+     * Sets every worker's virtual loss, see {@link MonteCarloTreeSearch#setVirtualLoss(int)}
+     * @param virtualLoss The visits to add, at least 1
+     */
+    public void setVirtualLoss(int virtualLoss) {
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            worker.setVirtualLoss(virtualLoss);
+        }
+    }
+
+    /**
+     * Makes later searches stop once {@link System#nanoTime()} reaches the deadline
+     * @param deadline The deadline as a System.nanoTime() value
+     */
+    public void setDeadline(long deadline) {
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            worker.setDeadline(deadline);
+        }
+    }
+
+    /**
+     * Lets later searches run all their simulations.
+     */
+    public void clearDeadline() {
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            worker.clearDeadline();
+        }
+    }
+
+    /**
+     * Runs simulations from a fresh tree rooted at a position, shared out among the workers,
+     * and returns once all of them are done or the deadline has passed.
+     * @param position The position to search; it is not changed
+     * @param simulations The most simulations to run in total
+     * @return The root's handle in the arena, whose children hold the root moves and their statistics
+     */
+    public int search(P position, int simulations) {
+        arena.reset();
+        root = arena.allocateRoot(MonteCarloTreeSearch.NO_MOVE);
+        reusedVisits = 0;
+        return run(position, simulations);
+    }
+
+    /**
+     * Runs simulations like {@link #search(SearchPosition, int)}, keeping the subtree of the last tree that matches
+     * the position if there is one, see {@link MonteCarloTreeSearch#searchReusingTree(SearchPosition, int)}
+     * @param position The position to search; it is not changed
+     * @param simulations The most simulations to run in total, on top of the visits kept
+     * @return The root's handle in the arena, whose children hold the root moves and their statistics
+     */
+    public int searchReusingTree(P position, int simulations) {
+        int kept = root == MctsNodeArena.NONE ? MctsNodeArena.NONE
+                : MonteCarloTreeSearch.findDescendant(arena, root, rootPosition.copy(), position.getKey(),
+                        MonteCarloTreeSearch.REUSE_PLIES);
+        if (kept == MctsNodeArena.NONE) {
+            return search(position, simulations);
+        }
+        root = arena.keepSubtree(kept);
+        reusedVisits = arena.getVisits(root);
+        return run(position, simulations);
+    }
+
+    /**
+     * @return The visits the root kept from the previous search, 0 if the last search grew a fresh tree
+     */
+    public int getReusedVisits() {
+        return reusedVisits;
+    }
+
+    // Shares the simulations out among the workers, which grow the tree from the root
+    @SuppressWarnings("unchecked")
+    private int run(P position, int simulations) {
+        rootPosition = (P) position.copy();
+        int tree = root;
+        AtomicInteger claimed = new AtomicInteger();
+        List<Future<?>> running = new ArrayList<>();
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            P copy = (P) position.copy();
+            running.add(executor.submit(() -> {
+                for (int i = 0; claimed.getAndIncrement() < simulations; i++) {
+                    if ((i & (CHECK_INTERVAL - 1)) == CHECK_INTERVAL - 1 && worker.isPastDeadline()) {
+                        break;
+                    }
+                    worker.simulate(tree, copy);
+                }
+            }));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MCTS worker failed", e.getCause());
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * @return The most visited root move of the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return root == MctsNodeArena.NONE ? MonteCarloTreeSearch.NO_MOVE
+                : MonteCarloTreeSearch.mostVisitedMove(arena, root);
+    }
+
+    /**
+     * @return The number of simulations all workers ran since the last reset
+     */
+    public long getSimulations() {
+        long simulations = 0;
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            simulations += worker.getSimulations();
+        }
+        return simulations;
+    }
+
+    /**
+     * Resets every worker's simulation counter.
+     */
+    public void resetSimulations() {
+        for (MonteCarloTreeSearch<P> worker : workers) {
+            worker.resetSimulations();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
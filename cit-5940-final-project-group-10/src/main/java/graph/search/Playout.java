@@ -0,0 +1,19 @@
+package graph.search;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays a game out from a position with random moves, for Monte Carlo tree search.
+ * A playout runs millions of times per move, so implementations should neither allocate nor change the position.
+ * @param <P> The type of position played out
+ */
+@FunctionalInterface
+public interface Playout<P extends SearchPosition> {
+    /**
+     * Plays random moves from a position to the end of the game.
+     * @param position The position to start from; it must be unchanged on return
+     * @param random The source of randomness, owned by the calling thread
+     * @return The result for the side to move in the position: 1 for a win, 0.5 for a draw, 0 for a loss
+     */
+    double play(P position, SplittableRandom random);
+}
@@ -0,0 +1,236 @@
+package graph.search;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.function.ToIntFunction;
+
+/**
+ * Models for Multi-ProbCut selective search.
+ * The score of a deep search is predicted from a much cheaper shallow search of the same position
+ * with a linear model, deep = slope * shallow + intercept, whose error has standard deviation sigma.
+ * Before searching a node, the engine asks whether the shallow search makes it unlikely, at a chosen
+ * number of standard deviations, that the deep score falls inside the window; if so, the node is cut
+ * without the deep search.
+ * There is one model per remaining depth and per game stage, since both change how well the
+ * shallow score predicts the deep one. Models are fitted from sample positions, see {@link Model#fit}.
+ * The models are read-only during a search, so one instance can be shared by many engines.
+ * @param <P> The type of position searched
+ */
+public class ProbCut<P extends SearchPosition> {
+    /** Standard deviations the shallow result must clear by default before a node is cut. */
+    public static final double DEFAULT_THRESHOLD = 1.5;
+
+    /**
+     * A linear prediction of a deep search score from a shallow one.
+     * @param shallowDepth The depth of the shallow search
+     * @param slope The change in deep score per point of shallow score
+     * @param intercept The deep score predicted for a shallow score of 0
+     * @param sigma The standard deviation of the prediction error
+     */
+    public record Model(int shallowDepth, double slope, double intercept, double sigma) {
+        /**
+         * @throws IllegalArgumentException if the shallow depth or slope is not positive, or sigma is negative
+         */
+        public Model {
+            if (shallowDepth <= 0 || !(slope > 0) || !(sigma >= 0)) {
+                throw new IllegalArgumentException("Invalid ProbCut model");
+            }
+        }
+
+        /**
+         * Fits a model by least squares.
+         * @param shallowDepth The depth of the shallow searches
+         * @param shallow The shallow scores of the sample positions
+         * @param deep The deep scores of the same positions
+         * @return The fitted model, or null if the samples give no usable model
+         */
+        public static Model fit(int shallowDepth, double[] shallow, double[] deep) {
+            int n = shallow.length;
+            if (n < 2 || deep.length != n) {
+                return null;
+            }
+            double meanShallow = 0;
+            double meanDeep = 0;
+            for (int i = 0; i < n; i++) {
+                meanShallow += shallow[i];
+                meanDeep += deep[i];
+            }
+            meanShallow /= n;
+            meanDeep /= n;
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < n; i++) {
+                covariance += (shallow[i] - meanShallow) * (deep[i] - meanDeep);
+                variance += (shallow[i] - meanShallow) * (shallow[i] - meanShallow);
+            }
+            if (variance == 0 || covariance <= 0) {
+                return null;
+            }
+            double slope = covariance / variance;
+            double intercept = meanDeep - slope * meanShallow;
+            double squaredError = 0;
+            for (int i = 0; i < n; i++) {
+                double error = deep[i] - (slope * shallow[i] + intercept);
+                squaredError += error * error;
+            }
+            return new Model(shallowDepth, slope, intercept, Math.sqrt(squaredError / (n - 1)));
+        }
+    }
+
+    private final Model[][] models;
+    private final ToIntFunction<P> stageOf;
+    private double threshold = DEFAULT_THRESHOLD;
+
+    /**
+     * Creates an empty set of models; a node whose depth and stage have no model is never cut
+     * @param stages The number of game stages
+     * @param maxDepth The deepest remaining depth that can have a model
+     * @param stageOf Gives the stage of a position, from 0 to stages - 1
+     */
+    public ProbCut(int stages, int maxDepth, ToIntFunction<P> stageOf) {
+        this.models = new Model[stages][maxDepth + 1];
+        this.stageOf = stageOf;
+    }
+
+    /**
+     * @return The number of game stages
+     */
+    public int getStages() {
+        return models.length;
+    }
+
+    /**
+     * @return The deepest remaining depth that can have a model
+     */
+    public int getMaxDepth() {
+        return models[0].length - 1;
+    }
+
+    /**
+     * Sets the model for one stage and depth
+     * @param stage The game stage
+     * @param depth The remaining depth the model predicts
+     * @param model The model, or null to never cut there
+     * @throws IllegalArgumentException if the model's shallow depth is not below depth
+     */
+    public void setModel(int stage, int depth, Model model) {
+        if (model != null && model.shallowDepth() >= depth) {
+            throw new IllegalArgumentException("The shallow search must be shallower than " + depth);
+        }
+        models[stage][depth] = model;
+    }
+
+    /**
+     * @param stage The game stage
+     * @param depth The remaining depth
+     * @return The model for that stage and depth, or null
+     */
+    public Model getModel(int stage, int depth) {
+        return models[stage][depth];
+    }
+
+    /**
+     * @param position A position about to be searched
+     * @param depth The remaining depth
+     * @return The model to test the position with, or null
+     */
+    public Model model(P position, int depth) {
+        if (depth >= models[0].length) {
+            return null;
+        }
+        return models[stageOf.applyAsInt(position)][depth];
+    }
+
+    /**
+     * Sets how sure the prediction must be to cut. Higher values cut less often and err less often.
+     * @param threshold The number of standard deviations
+     */
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return The number of standard deviations the prediction must clear
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param model The model in use
+     * @param beta The upper end of the window
+     * @return The shallow score at or above which the deep score is probably at least beta
+     */
+    public double betaBound(Model model, double beta) {
+        return (beta + threshold * model.sigma() - model.intercept()) / model.slope();
+    }
+
+    /**
+     * @param model The model in use
+     * @param alpha The lower end of the window
+     * @return The shallow score at or below which the deep score is probably at most alpha
+     */
+    public double alphaBound(Model model, double alpha) {
+        return (alpha - threshold * model.sigma() - model.intercept()) / model.slope();
+    }
+
+    /**
+     * Writes the models, one line per stage and depth: stage, depth, shallow depth, slope, intercept, sigma
+     * @param out Where to write
+     */
+    public void write(PrintWriter out) {
+        out.println("# stage depth shallow slope intercept sigma");
+        for (int stage = 0; stage < models.length; stage++) {
+            for (int depth = 0; depth < models[stage].length; depth++) {
+                Model model = models[stage][depth];
+                if (model != null) {
+                    out.printf("%d %d %d %s %s %s%n", stage, depth, model.shallowDepth(),
+                            model.slope(), model.intercept(), model.sigma());
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads models written by {@link #write(PrintWriter)}
+     * @param in Where to read from
+     * @param stages The number of game stages
+     * @param maxDepth The deepest remaining depth that can have a model
+     * @param stageOf Gives the stage of a position
+     * @param <P> The type of position searched
+     * @return The models
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if a line is malformed or out of range
+     */
+    public static <P extends SearchPosition> ProbCut<P> read(Reader in, int stages, int maxDepth,
+                                                             ToIntFunction<P> stageOf) throws IOException {
+        ProbCut<P> probCut = new ProbCut<>(stages, maxDepth, stageOf);
+        BufferedReader reader = new BufferedReader(in);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 6) {
+                throw new IllegalArgumentException("Expected 6 fields: " + line);
+            }
+            try {
+                int stage = Integer.parseInt(fields[0]);
+                int depth = Integer.parseInt(fields[1]);
+                if (stage < 0 || stage >= stages || depth < 0 || depth > maxDepth) {
+                    throw new IllegalArgumentException("Stage or depth out of range: " + line);
+                }
+                probCut.setModel(stage, depth, new Model(Integer.parseInt(fields[2]),
+                        Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), Double.parseDouble(fields[5])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed model: " + line, e);
+            }
+        }
+        return probCut;
+    }
+}
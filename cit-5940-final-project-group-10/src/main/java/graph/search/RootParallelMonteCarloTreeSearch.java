@@ -0,0 +1,224 @@
+package graph.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Root-parallel Monte Carlo tree search: each thread grows its own independent tree from the same position,
+ * with its own random seed, and the root moves' visit counts are summed over all trees to choose the move.
+ * Nothing is shared while the trees grow, each in its engine's own {@link MctsNodeArena}, so the threads
+ * never contend, at the cost of each tree seeing only its own share of the simulations.
+ * Compare {@link ParallelMonteCarloTreeSearch}, which shares one tree.
+ * @param <P> The type of position searched
+ */
+public class RootParallelMonteCarloTreeSearch<P extends SearchPosition> implements AutoCloseable {
+    /** The smallest arena each tree gets when the default memory is split among the trees, in MB. */
+    public static final int MIN_ARENA_MB = 1;
+
+    private final ExecutorService executor;
+    private final List<MonteCarloTreeSearch<P>> trees = new ArrayList<>();
+    private long[] mergedVisits = new long[0];
+    private int bestMove = MonteCarloTreeSearch.NO_MOVE;
+
+    /**
+     * Creates the engines and their threads. The trees share the memory one tree would use by default,
+     * as each sees only its share of the simulations, but each gets at least MIN_ARENA_MB.
+     * @param threads The number of trees, each searched by its own thread
+     * @param engineFactory Creates one engine per tree
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public RootParallelMonteCarloTreeSearch(int threads, Supplier<MonteCarloTreeSearch<P>> engineFactory) {
+        this(threads, engineFactory,
+                Math.max(MIN_ARENA_MB, MonteCarloTreeSearch.DEFAULT_ARENA_MB / Math.max(1, threads)));
+    }
+
+    /**
+     * Creates the engines and their threads
+     * @param threads The number of trees, each searched by its own thread
+     * @param engineFactory Creates one engine per tree
+     * @param arenaMegabytes The size of each tree's arena, in MB
+     * @throws IllegalArgumentException if threads or the arena size is less than 1
+     */
+    public RootParallelMonteCarloTreeSearch(int threads, Supplier<MonteCarloTreeSearch<P>> engineFactory,
+                                            int arenaMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-root-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            MonteCarloTreeSearch<P> tree = engineFactory.get();
+            tree.setArena(new MctsNodeArena(arenaMegabytes));
+            trees.add(tree);
+        }
+    }
+
+    /**
+     * @return The number of trees and threads
+     */
+    public int getThreads() {
+        return trees.size();
+    }
+
+    /**
+     * Seeds each tree differently from one seed, which makes searches without a deadline repeatable
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        for (int i = 0; i < trees.size(); i++) {
+            trees.get(i).setSeed(seed + i);
+        }
+    }
+
+    /**
+     * Makes later searches stop once {@link System#nanoTime()} reaches the deadline
+     * @param deadline The deadline as a System.nanoTime() value
+     */
+    public void setDeadline(long deadline) {
+        for (MonteCarloTreeSearch<P> tree : trees) {
+            tree.setDeadline(deadline);
+        }
+    }
+
+    /**
+     * Lets later searches run all their simulations.
+     */
+    public void clearDeadline() {
+        for (MonteCarloTreeSearch<P> tree : trees) {
+            tree.clearDeadline();
+        }
+    }
+
+    /**
+     * Grows every tree from a position, splitting the simulations evenly, and merges their root statistics
+     * once all of them are done or the deadline has passed.
+     * @param position The position to search; it is not changed
+     * @param simulations The most simulations to run in total
+     * @return The move with the most visits summed over all trees, or NO_MOVE if the position has no moves
+     */
+    public int search(P position, int simulations) {
+        return search(position, simulations, false);
+    }
+
+    /**
+     * Searches like {@link #search(SearchPosition, int)}, but each tree keeps its subtree of the last search
+     * that matches the position if there is one,
+     * see {@link MonteCarloTreeSearch#searchReusingTree(SearchPosition, int)}
+     * @param position The position to search; it is not changed
+     * @param simulations The most simulations to run in total, on top of the visits kept
+     * @return The move with the most visits summed over all trees, or NO_MOVE if the position has no moves
+     */
+    public int searchReusingTrees(P position, int simulations) {
+        return search(position, simulations, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(P position, int simulations, boolean reuse) {
+        List<Future<Integer>> running = new ArrayList<>();
+        for (int i = 0; i < trees.size(); i++) {
+            MonteCarloTreeSearch<P> tree = trees.get(i);
+            P copy = (P) position.copy();
+            int share = simulations / trees.size() + (i < simulations % trees.size() ? 1 : 0);
+            running.add(executor.submit(() -> reuse ? tree.searchReusingTree(copy, share) : tree.search(copy, share)));
+        }
+        List<Integer> roots = new ArrayList<>();
+        for (Future<Integer> future : running) {
+            try {
+                roots.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("MCTS tree failed", e.getCause());
+            }
+        }
+        merge(roots);
+        return bestMove;
+    }
+
+    // Sums the visits of each root move over the trees and picks the most visited move
+    private void merge(List<Integer> roots) {
+        int size = 0;
+        for (int i = 0; i < roots.size(); i++) {
+            MctsNodeArena arena = trees.get(i).getArena();
+            int first = arena.getFirstChild(roots.get(i));
+            for (int child = first; child < first + arena.getChildCount(roots.get(i)); child++) {
+                size = Math.max(size, arena.getMove(child) + 1);
+            }
+        }
+        mergedVisits = new long[size];
+        for (int i = 0; i < roots.size(); i++) {
+            MctsNodeArena arena = trees.get(i).getArena();
+            int first = arena.getFirstChild(roots.get(i));
+            for (int child = first; child < first + arena.getChildCount(roots.get(i)); child++) {
+                mergedVisits[arena.getMove(child)] += arena.getVisits(child);
+            }
+        }
+        bestMove = MonteCarloTreeSearch.NO_MOVE;
+        for (int move = 0; move < size; move++) {
+            if (mergedVisits[move] > 0 && (bestMove == MonteCarloTreeSearch.NO_MOVE
+                    || mergedVisits[move] > mergedVisits[bestMove])) {
+                bestMove = move;
+            }
+        }
+    }
+
+    /**
+     * @return The move with the most merged visits in the last search, or NO_MOVE if the root had no moves
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @param move A root move
+     * @return The move's visits summed over all trees in the last search, 0 if it was not searched
+     */
+    public long getMergedVisits(int move) {
+        return move >= 0 && move < mergedVisits.length ? mergedVisits[move] : 0;
+    }
+
+    /**
+     * @return The root visits all trees kept from the previous search
+     */
+    public long getReusedVisits() {
+        long visits = 0;
+        for (MonteCarloTreeSearch<P> tree : trees) {
+            visits += tree.getReusedVisits();
+        }
+        return visits;
+    }
+
+    /**
+     * @return The number of simulations all trees ran since the last reset
+     */
+    public long getSimulations() {
+        long simulations = 0;
+        for (MonteCarloTreeSearch<P> tree : trees) {
+            simulations += tree.getSimulations();
+        }
+        return simulations;
+    }
+
+    /**
+     * Resets every tree's simulation counter.
+     */
+    public void resetSimulations() {
+        for (MonteCarloTreeSearch<P> tree : trees) {
+            tree.resetSimulations();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,47 @@
+package graph.search;
+
+/**
+ * A game position that a search walks in place.
+ * Instead of a prebuilt tree, the search asks the position for its moves, plays one,
+ * searches the result and takes the move back, so only the current line is ever held in memory.
+ * Moves are small non-negative ints chosen by the game.
+ */
+public interface SearchPosition {
+    /**
+     * Fills a move list with the moves of the side to move.
+     * A forced pass must be returned as a single move, so 0 moves means the game is over.
+     * @param moves The list to fill
+     * @return The number of moves
+     */
+    int generateMoves(MoveList moves);
+
+    /**
+     * Plays a move returned by {@link #generateMoves(MoveList)}.
+     * @param move The move to play
+     */
+    void makeMove(int move);
+
+    /**
+     * Takes back the last move played.
+     */
+    void undoMove();
+
+    /**
+     * @return A hash of the position including the side to move, used for transposition tables
+     */
+    long getKey();
+
+    /**
+     * Copies the position so another thread can search it independently; move history is not needed.
+     * Implementations should return their own type.
+     * @return An independent copy
+     */
+    SearchPosition copy();
+
+    /**
+     * Scores a finished game for the side to move.
+     * Wins and losses should rank outside the range of any heuristic evaluation.
+     * @return The final score
+     */
+    double terminalScore();
+}
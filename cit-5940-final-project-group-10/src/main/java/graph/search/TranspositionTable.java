@@ -0,0 +1,215 @@
+package graph.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table that many search threads can share without locks.
+ * Each entry is two longs in one flat array: the key XORed with the data, followed by the data.
+ * The data word packs the score, depth, bound type, best move and search generation.
+ * The score is kept as a float, which is exact for every score that fits in one, such as whole numbers.
+ * A score that does not fit is rounded away from the window it bounds, so a stored bound never cuts off
+ * a search that the true score would not, and an exact score that does not fit is kept as a lower bound.
+ * A reader only accepts an entry when the two words XOR back to its key, so an entry torn
+ * by a concurrent write simply reads as a miss instead of returning another position's data.
+ */
+public class TranspositionTable {
+    /** The stored score is exact. */
+    public static final int EXACT = 1;
+    /** The stored score is a lower bound (the search failed high). */
+    public static final int LOWER = 2;
+    /** The stored score is an upper bound (the search failed low). */
+    public static final int UPPER = 3;
+
+    /** Move value stored when an entry has no best move. */
+    public static final int NO_MOVE = 0xFF;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // data word layout: score float bits | depth << 32 | bound << 40 | move << 42 | generation << 50
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 50;
+    private static final int BYTE_MASK = 0xFF;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+    private final long[] table;
+    private final int indexMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Creates a table using at most the given amount of memory.
+     * The number of entries is rounded down to a power of two.
+     * @param megabytes The table size in MB
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        entries = Math.min(entries, 1L << 29);
+        this.table = new long[(int) entries * 2];
+        this.indexMask = (int) entries - 1;
+    }
+
+    /**
+     * @return The number of entries in the table
+     */
+    public int getCapacity() {
+        return indexMask + 1;
+    }
+
+    // entries are addressed by the high key bits, which stay independent of the low bits used elsewhere
+    private int slot(long key) {
+        return ((int) (key >>> 32) & indexMask) << 1;
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The position key
+     * @return The packed data word, or 0 on a miss
+     */
+    public long probe(long key) {
+        probes.increment();
+        int slot = slot(key);
+        long data = (long) SLOTS.getOpaque(table, slot + 1);
+        long check = (long) SLOTS.getOpaque(table, slot);
+        if (data != 0 && (check ^ data) == key) {
+            hits.increment();
+            return data;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result. An existing entry is kept only when it comes from the
+     * current search and was searched deeper than the new result.
+     * @param key The position key
+     * @param depth The remaining depth the score was searched to
+     * @param bound EXACT, LOWER or UPPER
+     * @param score The score from the side to move's perspective, kept exactly if it fits in a float
+     * @param move The best move found, or NO_MOVE
+     */
+    public void store(long key, int depth, int bound, double score, int move) {
+        int slot = slot(key);
+        long oldData = (long) SLOTS.getOpaque(table, slot + 1);
+        long oldCheck = (long) SLOTS.getOpaque(table, slot);
+        int currentGeneration = generation;
+        if (oldData != 0 && generation(oldData) == currentGeneration && depth < depth(oldData)) {
+            return;
+        }
+        if (move == NO_MOVE && oldData != 0 && (oldCheck ^ oldData) == key) {
+            // keep the best move we already know for this position
+            move = move(oldData);
+        }
+        long data = pack(depth, bound, score, move, currentGeneration);
+        SLOTS.setOpaque(table, slot, key ^ data);
+        SLOTS.setOpaque(table, slot + 1, data);
+    }
+
+    private static long pack(int depth, int bound, double score, int move, int generation) {
+        float stored = (float) score;
+        if (bound == UPPER && stored < score) {
+            stored = Math.nextUp(stored);
+        } else if (bound != UPPER && stored != score) {
+            if (stored > score) {
+                stored = Math.nextDown(stored);
+            }
+            bound = LOWER;
+        }
+        return (Float.floatToRawIntBits(stored) & 0xFFFFFFFFL)
+                | (long) Math.max(0, Math.min(depth, BYTE_MASK)) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) (move & BYTE_MASK) << MOVE_SHIFT
+                | (long) (generation & BYTE_MASK) << GENERATION_SHIFT;
+    }
+
+    /**
+     * @param data A data word returned by {@link #probe(long)}
+     * @return The stored score
+     */
+    public static double score(long data) {
+        return Float.intBitsToFloat((int) data);
+    }
+
+    /**
+     * @param data A data word returned by {@link #probe(long)}
+     * @return The stored depth
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * @param data A data word returned by {@link #probe(long)}
+     * @return The stored bound type
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @param data A data word returned by {@link #probe(long)}
+     * @return The stored best move, or NO_MOVE
+     */
+    public static int move(long data) {
+        return (int) (data >>> MOVE_SHIFT) & BYTE_MASK;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches become replaceable.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & BYTE_MASK;
+    }
+
+    /**
+     * Empties the table and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        resetStatistics();
+    }
+
+    /**
+     * Resets the probe and hit counters.
+     */
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * @return The number of probes since the last reset
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return The number of probes that found their position since the last reset
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The fraction of probes that hit, 0 if there were none
+     */
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : (double) hits.sum() / probeCount;
+    }
+}
@@ -9,6 +9,7 @@ module othello {
     exports othello.gamelogic;
     opens othello.gamelogic to javafx.fxml;
     exports othello.gamelogic.strategies;
+    exports othello.benchmark;
     exports deeplearningjava;
     exports graph.core;
     exports graph.traversal;
@@ -0,0 +1,230 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.MoveList;
+import graph.search.MoveOrdering;
+import graph.search.TranspositionTable;
+import othello.gamelogic.EndgameSolver;
+import othello.gamelogic.Position;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Solves a suite of endgame positions, in the style of the FFO test suite, and checks every result.
+ * Each line of a suite is a position in the {@link Position#parse(String)} format, the exact final margin
+ * for the side to move, and an optional name; blank lines and lines starting with '#' are skipped:
+ * <pre>
+ * ------XO---XXXOO-XXXXXXO-XOOXOXO-XOXXOOO-XOXXXOOXXXXXOO-XXXXXXX- X -8 sp-01
+ * </pre>
+ * For each position it reports the score, whether it matched, the time, nodes and nodes per second,
+ * and the process exits with status 1 if any result is wrong. Without a file the bundled suite is used.
+ *
+ * Usage: {@code EndgameBenchmark [exact|wld|alphabeta] [suite]}<br>
+ * or {@code EndgameBenchmark generate <count> <minEmpties> <maxEmpties> [seed]} to print a new suite,
+ * scored by the exact solver.
+ */
+public class EndgameBenchmark {
+    private static final String BUNDLED_SUITE = "endgame-suite.txt";
+    private static final int TABLE_MB = 64;
+
+    /**
+     * A suite position with its known result.
+     * @param name The label printed in the report
+     * @param position The position to solve
+     * @param expected The exact final margin for the side to move
+     */
+    public record TestPosition(String name, Position position, int expected) {
+    }
+
+    /**
+     * The outcome of solving one position.
+     * @param test The position solved
+     * @param score The score the engine found
+     * @param correct Whether the score agrees with the expected one, in the engine's mode
+     * @param nodes The positions the engine visited
+     * @param nanos The time taken
+     */
+    public record Result(TestPosition test, int score, boolean correct, long nodes, long nanos) {
+    }
+
+    /**
+     * The engines a suite can be solved with.
+     */
+    public enum Engine {
+        /** The endgame solver, exact margin. */
+        EXACT,
+        /** The endgame solver, win/loss/draw only; checked against the sign of the expected margin. */
+        WLD,
+        /** The general alpha-beta engine searching to the end of the game, as an independent check. */
+        ALPHA_BETA
+    }
+
+    /**
+     * Reads a suite.
+     * @param in Where to read from
+     * @return The positions in file order
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if a line is malformed, with its line number
+     */
+    public static List<TestPosition> parse(Reader in) throws IOException {
+        BufferedReader reader = new BufferedReader(in);
+        List<TestPosition> suite = new ArrayList<>();
+        String line;
+        for (int number = 1; (line = reader.readLine()) != null; number++) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+", 4);
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Line " + number + ": expected board, side and score");
+            }
+            try {
+                Position position = Position.parse(fields[0] + " " + fields[1]);
+                String name = fields.length > 3 ? fields[3] : "#" + number;
+                suite.add(new TestPosition(name, position, Integer.parseInt(fields[2])));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return suite;
+    }
+
+    /**
+     * @return The suite shipped with the benchmark
+     * @throws IOException if it cannot be read
+     */
+    public static List<TestPosition> bundledSuite() throws IOException {
+        try (Reader in = new InputStreamReader(
+                EndgameBenchmark.class.getResourceAsStream(BUNDLED_SUITE), StandardCharsets.UTF_8)) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * Solves every position of a suite with one engine, each from an empty table.
+     * @param suite The positions to solve
+     * @param engine The engine to use
+     * @return One result per position
+     */
+    public static List<Result> run(List<TestPosition> suite, Engine engine) {
+        EndgameSolver solver = new EndgameSolver();
+        AlphaBeta<Position> search = null;
+        if (engine == Engine.ALPHA_BETA) {
+            // the depth limit is never reached, every line of play ends the game first
+            search = new AlphaBeta<>(p -> 0, Position.MAX_MOVES);
+            search.setTranspositionTable(new TranspositionTable(TABLE_MB));
+            search.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+            search.setPrincipalVariation(true);
+        }
+        List<Result> results = new ArrayList<>();
+        for (TestPosition test : suite) {
+            Position position = new Position(test.position());
+            int score;
+            long nodes;
+            long start = System.nanoTime();
+            if (search != null) {
+                search.getTranspositionTable().clear();
+                search.getMoveOrdering().clear();
+                search.resetNodes();
+                score = (int) (search.search(position, AlphaBeta.MAX_PLY - 1) / Position.TERMINAL_WEIGHT);
+                nodes = search.getNodes();
+            } else {
+                solver.clear();
+                solver.resetNodes();
+                score = solver.solve(position, engine == Engine.EXACT ? EndgameSolver.Mode.EXACT
+                        : EndgameSolver.Mode.WIN_LOSS_DRAW);
+                nodes = solver.getNodes();
+            }
+            long elapsed = System.nanoTime() - start;
+            boolean correct = engine == Engine.WLD ? score == Integer.signum(test.expected()) : score == test.expected();
+            results.add(new Result(test, score, correct, nodes, elapsed));
+        }
+        return results;
+    }
+
+    /**
+     * Builds a suite from random games, scored by the exact solver.
+     * @param count The number of positions
+     * @param minEmpties The fewest empties of a position
+     * @param maxEmpties The most empties of a position
+     * @param seed The random seed
+     * @return The positions, spread evenly over the range of empties
+     */
+    public static List<TestPosition> generate(int count, int minEmpties, int maxEmpties, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        EndgameSolver solver = new EndgameSolver();
+        List<TestPosition> suite = new ArrayList<>();
+        while (suite.size() < count) {
+            int empties = minEmpties + suite.size() * (maxEmpties - minEmpties + 1) / count;
+            Position position = new Position();
+            while (position.getEmptyCount() > empties && position.generateMoves(moves) > 0) {
+                position.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (position.getEmptyCount() == empties && !position.isGameOver()) {
+                Position test = new Position(position);
+                String name = String.format("sp-%02d", suite.size() + 1);
+                suite.add(new TestPosition(name, test, solver.solve(test, EndgameSolver.Mode.EXACT)));
+            }
+        }
+        return suite;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("generate")) {
+            if (args.length < 4) {
+                System.err.println("Usage: EndgameBenchmark generate <count> <minEmpties> <maxEmpties> [seed]");
+                System.exit(1);
+            }
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : 5940;
+            for (TestPosition test : generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                    Integer.parseInt(args[3]), seed)) {
+                System.out.println(test.position() + " " + test.expected() + " " + test.name());
+            }
+            return;
+        }
+
+        Engine engine = args.length > 0 ? Engine.valueOf(args[0].toUpperCase().replace("ALPHABETA", "ALPHA_BETA"))
+                : Engine.EXACT;
+        List<TestPosition> suite;
+        if (args.length > 1) {
+            try (Reader in = new FileReader(args[1])) {
+                suite = parse(in);
+            }
+        } else {
+            suite = bundledSuite();
+        }
+
+        System.out.printf("%-10s %7s %8s %6s %4s %10s %14s %12s%n",
+                "position", "empties", "expected", "score", "ok", "ms", "nodes", "nodes/sec");
+        long totalNodes = 0;
+        long totalNanos = 0;
+        int failures = 0;
+        for (Result result : run(suite, engine)) {
+            TestPosition test = result.test();
+            System.out.printf("%-10s %7d %8d %6d %4s %10.1f %14d %12.0f%n", test.name(),
+                    test.position().getEmptyCount(), test.expected(), result.score(), result.correct() ? "yes" : "NO",
+                    result.nanos() / 1e6, result.nodes(), result.nodes() / (result.nanos() / 1e9));
+            totalNodes += result.nodes();
+            totalNanos += result.nanos();
+            if (!result.correct()) {
+                failures++;
+            }
+        }
+        System.out.printf("%-10s %7s %8s %6s %4s %10.1f %14d %12.0f%n", "total", "", "", "",
+                failures == 0 ? "yes" : "NO", totalNanos / 1e6, totalNodes, totalNodes / (totalNanos / 1e9));
+        if (failures > 0) {
+            System.err.println(failures + " of " + suite.size() + " positions solved wrong");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.LazySMP;
+import graph.search.MoveOrdering;
+import graph.search.TranspositionTable;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.BoardEvaluator;
+import othello.gamelogic.strategies.WeightedEvaluator;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Measures Lazy SMP time-to-depth: how long the main thread takes to finish iterative deepening
+ * to a fixed depth with 1, 2, 4, ... threads sharing one transposition table.
+ * Unlike a node count, this includes the helpers' benefit of filling the table ahead of the main thread.
+ * The speedup is only meaningful on a machine with at least as many cores as threads.
+ *
+ * Usage: {@code LazySmpBenchmark <depth> [maxThreads] [positions]}
+ */
+public class LazySmpBenchmark {
+    private static final int TABLE_MB = 64;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LazySmpBenchmark <depth> [maxThreads] [positions]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        List<Position> positions = SearchBenchmark.samplePositions(count, 5940);
+
+        BoardEvaluator evaluator = new WeightedEvaluator();
+        ToDoubleFunction<Position> evaluate = p -> evaluator.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+        TranspositionTable table = new TranspositionTable(TABLE_MB);
+
+        System.out.printf("%d positions, depth %d, %d cores%n", count, depth,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %14s %10s %8s %14s%n", "threads", "nodes", "ms", "speedup", "main nodes");
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            AlphaBeta<Position> engine = createEngine(evaluate, table);
+            try (LazySMP<Position> helpers = new LazySMP<>(threads - 1, () -> createEngine(evaluate, table))) {
+                long mainNodes = 0;
+                long helperNodes = 0;
+                long start = System.nanoTime();
+                for (Position position : positions) {
+                    table.clear();
+                    engine.getMoveOrdering().clear();
+                    engine.resetNodes();
+                    helpers.resetNodes();
+                    helpers.start(position, depth);
+                    for (int d = 1; d <= depth; d++) {
+                        engine.search(position, d);
+                    }
+                    helpers.stop();
+                    mainNodes += engine.getNodes();
+                    helperNodes += helpers.getNodes();
+                }
+                double millis = (System.nanoTime() - start) / 1e6;
+                if (threads == 1) {
+                    baseline = millis;
+                }
+                System.out.printf("%8d %14d %10.1f %7.2fx %14d%n",
+                        threads, mainNodes + helperNodes, millis, baseline / millis, mainNodes);
+            }
+        }
+    }
+
+    private static AlphaBeta<Position> createEngine(ToDoubleFunction<Position> evaluate, TranspositionTable table) {
+        AlphaBeta<Position> engine = new AlphaBeta<>(evaluate, Position.MAX_MOVES);
+        engine.setTranspositionTable(table);
+        engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        return engine;
+    }
+}
@@ -0,0 +1,92 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.LateMoveReductions;
+import graph.search.TranspositionTable;
+import othello.gamelogic.Position;
+
+import java.util.List;
+
+/**
+ * Compares late move reductions against full-depth search at the same nominal depth.
+ * Each reduction table searches the same positions with principal variation search, and the report gives
+ * its nodes as a share of the unreduced search, the reduced moves and their re-searches, and the fraction
+ * of positions where it still chose the unreduced search's move.
+ *
+ * Usage: {@code LmrBenchmark <depth> [positions] [seed]}
+ */
+public class LmrBenchmark {
+    private static final int TABLE_MB = 64;
+    private static final int TABLE_DEPTH = 32;
+
+    private record Setting(String name, LateMoveReductions reductions) {
+    }
+
+    /**
+     * @return The reductions of the "default" setting, also used by SearchBenchmark:
+     * none for the first three moves or below depth 3, logarithmic after that
+     */
+    public static LateMoveReductions defaultReductions() {
+        return LateMoveReductions.logarithmic(TABLE_DEPTH, Position.MAX_MOVES, 3, 3, 0.5, 2);
+    }
+
+    // Searches every position and returns the best moves; fills in nodes, reduced moves, re-searches and nanos
+    private static int[] run(List<Position> positions, int depth, LateMoveReductions reductions, long[] totals) {
+        AlphaBeta<Position> engine = SearchBenchmark.orderedEngine(new TranspositionTable(TABLE_MB));
+        engine.setPrincipalVariation(true);
+        engine.setLateMoveReductions(reductions);
+        int[] moves = new int[positions.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            engine.getTranspositionTable().clear();
+            engine.getMoveOrdering().clear();
+            engine.resetNodes();
+            for (int d = 1; d <= depth; d++) {
+                engine.search(position, d);
+            }
+            moves[i] = engine.getBestMove();
+            totals[0] += engine.getNodes();
+            totals[1] += engine.getReducedMoves();
+            totals[2] += engine.getReductionResearches();
+        }
+        totals[3] = System.nanoTime() - start;
+        return moves;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LmrBenchmark <depth> [positions] [seed]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 5940;
+        List<Position> positions = SearchBenchmark.samplePositions(count, seed);
+        List<Setting> settings = List.of(
+                new Setting("gentle", LateMoveReductions.logarithmic(TABLE_DEPTH, Position.MAX_MOVES, 3, 4, 0, 3)),
+                new Setting("default", defaultReductions()),
+                new Setting("aggressive", LateMoveReductions.logarithmic(TABLE_DEPTH, Position.MAX_MOVES, 3, 2, 1, 1.5)));
+
+        long[] baseline = new long[4];
+        int[] expected = run(positions, depth, null, baseline);
+        System.out.printf("%d positions, depth %d%n", count, depth);
+        System.out.printf("%-12s %14s %8s %10s %10s %10s %10s%n",
+                "reductions", "nodes", "share", "ms", "reduced", "re-search", "agreement");
+        System.out.printf("%-12s %14d %7.1f%% %10.1f %10d %10d %9.1f%%%n", "off", baseline[0], 100.0,
+                baseline[3] / 1e6, 0, 0, 100.0);
+        for (Setting setting : settings) {
+            long[] totals = new long[4];
+            int[] moves = run(positions, depth, setting.reductions(), totals);
+            int agree = 0;
+            for (int i = 0; i < moves.length; i++) {
+                if (moves[i] == expected[i]) {
+                    agree++;
+                }
+            }
+            System.out.printf("%-12s %14d %7.1f%% %10.1f %10d %10d %9.1f%%%n", setting.name(), totals[0],
+                    100.0 * totals[0] / baseline[0], totals[3] / 1e6, totals[1], totals[2],
+                    100.0 * agree / moves.length);
+        }
+    }
+}
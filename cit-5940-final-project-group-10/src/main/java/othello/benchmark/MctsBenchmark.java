@@ -0,0 +1,105 @@
+package othello.benchmark;
+
+import graph.search.MctsNodeArena;
+import graph.search.MonteCarloTreeSearch;
+import graph.search.ParallelMonteCarloTreeSearch;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.MCTSStrategy;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures Monte Carlo tree search throughput on sample positions: raw random playouts per second,
+ * and full simulations per second, which add selection, expansion and backpropagation to each playout,
+ * with the average size of the trees they grow.
+ * It then runs the same simulations tree-parallel with 1, 2, 4 and so on up to maxThreads threads
+ * and reports simulations per second and the speedup over one thread, the scaling curve.
+ *
+ * Usage: {@code MctsBenchmark <simulations> [positions] [seed] [maxThreads]}
+ */
+public class MctsBenchmark {
+    private static final int WARMUP_PLAYOUTS = 200_000;
+    private static final int DEFAULT_MAX_THREADS = 32;
+
+    /**
+     * Plays random games out from each position in turn.
+     * @param positions The positions to play out
+     * @param playouts The total number of playouts
+     * @param seed The random seed
+     * @return The elapsed time in nanoseconds
+     */
+    public static long timePlayouts(List<Position> positions, int playouts, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < playouts; i++) {
+            sum += positions.get(i % positions.size()).playRandomGame(random);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sum == Long.MIN_VALUE) {
+            // keeps the results alive so the loop cannot be optimized away
+            System.out.println(sum);
+        }
+        return elapsed;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: MctsBenchmark <simulations> [positions] [seed] [maxThreads]");
+            System.exit(1);
+        }
+        int simulations = Integer.parseInt(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 5940;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_THREADS;
+        List<Position> positions = SearchBenchmark.samplePositions(count, seed);
+
+        timePlayouts(positions, WARMUP_PLAYOUTS, seed);
+        int playouts = simulations * count;
+        long playoutNanos = timePlayouts(positions, playouts, seed);
+        System.out.printf("%d positions, %d simulations each%n", count, simulations);
+        System.out.printf("%-12s %12s %10s %14s%n", "phase", "count", "ms", "per second");
+        System.out.printf("%-12s %12d %10.1f %14.0f%n", "playouts", playouts, playoutNanos / 1e6,
+                playouts / (playoutNanos / 1e9));
+
+        MonteCarloTreeSearch<Position> search = MCTSStrategy.createEngine();
+        search.setSeed(seed);
+        search.search(positions.get(0), simulations);
+        search.resetSimulations();
+        long nodes = 0;
+        long start = System.nanoTime();
+        for (Position position : positions) {
+            search.search(position, simulations);
+            nodes += search.getArena().size();
+        }
+        long searchNanos = System.nanoTime() - start;
+        System.out.printf("%-12s %12d %10.1f %14.0f%n", "simulations", search.getSimulations(), searchNanos / 1e6,
+                search.getSimulations() / (searchNanos / 1e9));
+        System.out.printf("average tree %d nodes, %.1f MB at %d bytes per node%n", nodes / count,
+                (double) nodes / count * MctsNodeArena.BYTES_PER_NODE / (1024 * 1024), MctsNodeArena.BYTES_PER_NODE);
+
+        System.out.println();
+        System.out.printf("%-12s %12s %10s %14s %8s%n", "threads", "simulations", "ms", "per second", "speedup");
+        double single = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            try (ParallelMonteCarloTreeSearch<Position> parallel =
+                         new ParallelMonteCarloTreeSearch<>(threads, MCTSStrategy::createEngine)) {
+                parallel.setSeed(seed);
+                parallel.search(positions.get(0), simulations);
+                parallel.resetSimulations();
+                start = System.nanoTime();
+                for (Position position : positions) {
+                    parallel.search(position, simulations);
+                }
+                long nanos = System.nanoTime() - start;
+                double rate = parallel.getSimulations() / (nanos / 1e9);
+                if (threads == 1) {
+                    single = rate;
+                }
+                System.out.printf("%-12d %12d %10.1f %14.0f %7.2fx%n", threads, parallel.getSimulations(),
+                        nanos / 1e6, rate, rate / single);
+            }
+        }
+    }
+}
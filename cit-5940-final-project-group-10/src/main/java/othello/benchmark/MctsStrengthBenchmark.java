@@ -0,0 +1,180 @@
+package othello.benchmark;
+
+import graph.search.MonteCarloTreeSearch;
+import graph.search.MoveList;
+import graph.search.ParallelMonteCarloTreeSearch;
+import graph.search.RootParallelMonteCarloTreeSearch;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.MCTSStrategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares the playing strength of parallel MCTS against the single-tree search at the same wall-clock time
+ * per move. Root-parallel and tree-parallel searches with the given number of threads each play the single
+ * tree from random four-ply openings, every opening twice with colors swapped, and the report gives each one's
+ * score (a win 1, a draw 0.5) and the simulations both sides managed per move. A single tree that keeps its
+ * subtree between moves plays the same way, showing what reusing the tree is worth.
+ *
+ * Usage: {@code MctsStrengthBenchmark <msPerMove> <games> [threads] [seed]}
+ */
+public class MctsStrengthBenchmark {
+    private static final int OPENING_PLIES = 4;
+
+    // A player that picks a move within the time per move and counts its simulations
+    private interface Player extends AutoCloseable {
+        int move(Position position, long deadline);
+
+        long simulations();
+
+        @Override
+        void close();
+    }
+
+    private static Player single(long seed) {
+        MonteCarloTreeSearch<Position> search = MCTSStrategy.createEngine();
+        search.setSeed(seed);
+        return new Player() {
+            public int move(Position position, long deadline) {
+                search.setDeadline(deadline);
+                search.search(position, Integer.MAX_VALUE);
+                return search.getBestMove();
+            }
+
+            public long simulations() {
+                return search.getSimulations();
+            }
+
+            public void close() {
+            }
+        };
+    }
+
+    private static Player reusing(long seed) {
+        MonteCarloTreeSearch<Position> search = MCTSStrategy.createEngine();
+        search.setSeed(seed);
+        return new Player() {
+            public int move(Position position, long deadline) {
+                search.setDeadline(deadline);
+                search.searchReusingTree(position, Integer.MAX_VALUE);
+                return search.getBestMove();
+            }
+
+            public long simulations() {
+                return search.getSimulations();
+            }
+
+            public void close() {
+            }
+        };
+    }
+
+    private static Player rootParallel(int threads, long seed) {
+        RootParallelMonteCarloTreeSearch<Position> search =
+                new RootParallelMonteCarloTreeSearch<>(threads, MCTSStrategy::createEngine);
+        search.setSeed(seed);
+        return new Player() {
+            public int move(Position position, long deadline) {
+                search.setDeadline(deadline);
+                return search.search(position, Integer.MAX_VALUE);
+            }
+
+            public long simulations() {
+                return search.getSimulations();
+            }
+
+            public void close() {
+                search.close();
+            }
+        };
+    }
+
+    private static Player treeParallel(int threads, long seed) {
+        ParallelMonteCarloTreeSearch<Position> search =
+                new ParallelMonteCarloTreeSearch<>(threads, MCTSStrategy::createEngine);
+        search.setSeed(seed);
+        return new Player() {
+            public int move(Position position, long deadline) {
+                search.setDeadline(deadline);
+                search.search(position, Integer.MAX_VALUE);
+                return search.getBestMove();
+            }
+
+            public long simulations() {
+                return search.getSimulations();
+            }
+
+            public void close() {
+                search.close();
+            }
+        };
+    }
+
+    // Plays one game and returns the final margin for black; counts the searched moves of each side
+    private static int play(Position opening, Player black, Player white, long millis, int[] moves) {
+        Position position = new Position(opening);
+        MoveList legal = new MoveList(Position.MAX_MOVES);
+        while (position.generateMoves(legal) > 0) {
+            if (legal.get(0) == Position.PASS) {
+                position.makeMove(Position.PASS);
+                continue;
+            }
+            boolean blackToMove = position.isBlackToMove();
+            Player player = blackToMove ? black : white;
+            moves[blackToMove ? 0 : 1]++;
+            position.makeMove(player.move(position, System.nanoTime() + millis * 1_000_000));
+        }
+        int margin = position.getFinalScore();
+        return position.isBlackToMove() ? margin : -margin;
+    }
+
+    // Plays the candidate against the single tree; prints its score and both sides' simulations per move
+    private static void match(String name, Player candidate, int games, long millis, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MoveList legal = new MoveList(Position.MAX_MOVES);
+        double points = 0;
+        long candidateMoves = 0;
+        long baselineMoves = 0;
+        try (Player baseline = single(seed + 1000)) {
+            Position opening = null;
+            for (int game = 0; game < games; game++) {
+                if (game % 2 == 0) {
+                    opening = new Position();
+                    for (int ply = 0; ply < OPENING_PLIES && opening.generateMoves(legal) > 0; ply++) {
+                        opening.makeMove(legal.get(random.nextInt(legal.size())));
+                    }
+                    opening = new Position(opening);
+                }
+                int[] moves = new int[2];
+                boolean candidateBlack = game % 2 == 0;
+                int margin = candidateBlack ? play(opening, candidate, baseline, millis, moves)
+                        : -play(opening, baseline, candidate, millis, moves);
+                points += margin > 0 ? 1 : margin == 0 ? 0.5 : 0;
+                candidateMoves += moves[candidateBlack ? 0 : 1];
+                baselineMoves += moves[candidateBlack ? 1 : 0];
+            }
+            System.out.printf("%-16s %8d %9.1f%% %14.0f %14.0f%n", name, games, 100 * points / games,
+                    (double) candidate.simulations() / candidateMoves, (double) baseline.simulations() / baselineMoves);
+        } finally {
+            candidate.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: MctsStrengthBenchmark <msPerMove> <games> [threads] [seed]");
+            System.exit(1);
+        }
+        long millis = Long.parseLong(args[0]);
+        int games = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 5940;
+
+        System.out.printf("%d ms per move, %d games per match, %d threads%n", millis, games, threads);
+        System.out.printf("%-16s %8s %10s %14s %14s%n", "vs single tree", "games", "score", "sims/move", "single's");
+        match("single", single(seed), games, millis, seed);
+        match("tree reuse", reusing(seed), games, millis, seed);
+        match("root-parallel", rootParallel(threads, seed), games, millis, seed);
+        match("tree-parallel", treeParallel(threads, seed), games, millis, seed);
+    }
+}
@@ -0,0 +1,65 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.MoveOrdering;
+import graph.search.ParallelAlphaBeta;
+import graph.search.TranspositionTable;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.BoardEvaluator;
+import othello.gamelogic.strategies.WeightedEvaluator;
+
+import java.util.List;
+
+/**
+ * Measures the speedup curve of the parallel alpha-beta search: the same positions are searched
+ * to a fixed depth with 1, 2, 4, ... threads, each run with an empty transposition table.
+ * Speedup is the 1-thread time divided by the n-thread time; the node column shows how much
+ * extra work the parallel search does on subtrees that a sequential search would have cut.
+ *
+ * Usage: {@code ParallelBenchmark <depth> [maxThreads] [positions] [splitDepth]}
+ */
+public class ParallelBenchmark {
+    private static final int TABLE_MB = 64;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ParallelBenchmark <depth> [maxThreads] [positions] [splitDepth]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int splitDepth = args.length > 3 ? Integer.parseInt(args[3]) : ParallelAlphaBeta.DEFAULT_SPLIT_DEPTH;
+        List<Position> positions = SearchBenchmark.samplePositions(count, 5940);
+        BoardEvaluator evaluator = new WeightedEvaluator();
+
+        System.out.printf("%d positions, depth %d, split depth %d, %d cores available%n",
+                count, depth, splitDepth, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %14s %10s %14s %9s%n", "threads", "nodes", "ms", "nodes/sec", "speedup");
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            TranspositionTable table = new TranspositionTable(TABLE_MB);
+            try (ParallelAlphaBeta<Position> search = new ParallelAlphaBeta<>(
+                    p -> evaluator.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs()),
+                    Position.MAX_MOVES, table, threads)) {
+                search.setSplitDepth(splitDepth);
+                search.setEngineSetup(engine ->
+                        engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY)));
+                long elapsed = 0;
+                for (Position position : positions) {
+                    table.clear();
+                    long start = System.nanoTime();
+                    search.search(position, depth);
+                    elapsed += System.nanoTime() - start;
+                }
+                if (threads == 1) {
+                    baseline = elapsed;
+                }
+                long nodes = search.getNodes();
+                System.out.printf("%8d %14d %10.1f %14.0f %8.2fx%n", threads, nodes, elapsed / 1e6,
+                        nodes / (elapsed / 1e9), baseline / elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package othello.benchmark;
+
+import othello.gamelogic.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the leaf nodes of the game tree to a fixed depth, to measure and check move generation.
+ * A pass is a ply of its own, and a finished game counts as one leaf at whatever depth it ends.
+ *
+ * Usage: {@code Perft <depth> [threads] [position]}, where the position uses the
+ * {@link Position#parse(String)} format and defaults to the standard start.
+ */
+public class Perft {
+    /** Known leaf counts from the start position, indexed by depth. */
+    public static final long[] START_COUNTS = {
+            1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L, 212258800L
+    };
+
+    /**
+     * Counts the leaves below a position. The position is restored before returning.
+     * @param position The position to count from
+     * @param depth The number of plies to search
+     * @return The number of leaf nodes
+     */
+    public static long perft(Position position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = position.getLegalMoves();
+        if (moves == 0) {
+            if (position.isGameOver()) {
+                return 1;
+            }
+            position.makeMove(Position.PASS);
+            long nodes = perft(position, depth - 1);
+            position.undoMove();
+            return nodes;
+        }
+        if (depth == 1) {
+            // bulk count the last ply instead of making each move
+            return Long.bitCount(moves);
+        }
+        long nodes = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            position.makeMove(Long.numberOfTrailingZeros(moves));
+            nodes += perft(position, depth - 1);
+            position.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaves below a position, splitting the root moves across threads.
+     * Each thread works on its own copy of the position.
+     * @param position The position to count from
+     * @param depth The number of plies to search
+     * @param threads The number of worker threads
+     * @return The number of leaf nodes
+     */
+    public static long perftParallel(Position position, int depth, int threads) {
+        long moves = position.getLegalMoves();
+        if (depth <= 1 || threads <= 1 || moves == 0) {
+            return perft(new Position(position), depth);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (; moves != 0; moves &= moves - 1) {
+                int move = Long.numberOfTrailingZeros(moves);
+                results.add(executor.submit(() -> {
+                    Position copy = new Position(position);
+                    copy.makeMove(move);
+                    return perft(copy, depth - 1);
+                }));
+            }
+            long nodes = 0;
+            for (Future<Long> result : results) {
+                nodes += result.get();
+            }
+            return nodes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Perft <depth> [threads] [position]");
+            System.exit(1);
+        }
+        int maxDepth = Integer.parseInt(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        boolean fromStart = args.length <= 2;
+        Position position = fromStart ? new Position() : Position.parse(args[2]);
+
+        System.out.println("Position: " + position);
+        System.out.printf("%5s %14s %10s %14s%n", "depth", "nodes", "ms", "nodes/sec");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = perftParallel(position, depth, threads);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%5d %14d %10.1f %14.0f", depth, nodes, elapsed / 1e6, nodes / (elapsed / 1e9));
+            if (fromStart && depth < START_COUNTS.length && nodes != START_COUNTS[depth]) {
+                System.out.print("  MISMATCH, expected " + START_COUNTS[depth]);
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.ProbCut;
+import graph.search.TranspositionTable;
+import othello.gamelogic.Position;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Measures what Multi-ProbCut trades: the nodes it saves against how often it changes the move.
+ * Each position is searched to the same depth by full alpha-beta and with ProbCut at several thresholds,
+ * and the report gives each threshold's nodes as a share of the full search and the fraction of positions
+ * where it still chose the full search's move.
+ *
+ * Usage: {@code ProbCutBenchmark <models> <depth> [positions] [seed]}
+ */
+public class ProbCutBenchmark {
+    private static final int TABLE_MB = 64;
+    private static final double[] THRESHOLDS = {3.0, 2.0, 1.5, 1.0, 0.5};
+
+    // Searches every position and returns the best moves; fills in nodes, cuts and nanos
+    private static int[] run(List<Position> positions, int depth, ProbCut<Position> probCut, long[] totals) {
+        AlphaBeta<Position> engine = SearchBenchmark.orderedEngine(new TranspositionTable(TABLE_MB));
+        engine.setProbCut(probCut);
+        int[] moves = new int[positions.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < positions.size(); i++) {
+            Position position = positions.get(i);
+            engine.getTranspositionTable().clear();
+            engine.getMoveOrdering().clear();
+            engine.resetNodes();
+            for (int d = 1; d <= depth; d++) {
+                engine.search(position, d);
+            }
+            moves[i] = engine.getBestMove();
+            totals[0] += engine.getNodes();
+            totals[1] += engine.getProbCuts();
+        }
+        totals[2] = System.nanoTime() - start;
+        return moves;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ProbCutBenchmark <models> <depth> [positions] [seed]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[1]);
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 5940;
+        ProbCut<Position> probCut;
+        try (Reader in = new FileReader(args[0])) {
+            probCut = ProbCut.read(in, ProbCutCalibration.STAGES, AlphaBeta.MAX_PLY - 1, ProbCutCalibration::stage);
+        }
+        List<Position> positions = SearchBenchmark.samplePositions(count, seed);
+
+        long[] baseline = new long[3];
+        int[] expected = run(positions, depth, null, baseline);
+        System.out.printf("%d positions, depth %d%n", count, depth);
+        System.out.printf("%-10s %14s %8s %10s %10s %10s%n", "threshold", "nodes", "share", "ms", "cuts", "agreement");
+        System.out.printf("%-10s %14d %7.1f%% %10.1f %10d %9.1f%%%n", "off", baseline[0], 100.0,
+                baseline[2] / 1e6, 0, 100.0);
+        for (double threshold : THRESHOLDS) {
+            probCut.setThreshold(threshold);
+            long[] totals = new long[3];
+            int[] moves = run(positions, depth, probCut, totals);
+            int agree = 0;
+            for (int i = 0; i < moves.length; i++) {
+                if (moves[i] == expected[i]) {
+                    agree++;
+                }
+            }
+            System.out.printf("%-10.1f %14d %7.1f%% %10.1f %10d %9.1f%%%n", threshold, totals[0],
+                    100.0 * totals[0] / baseline[0], totals[2] / 1e6, totals[1], 100.0 * agree / moves.length);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.MoveList;
+import graph.search.ProbCut;
+import graph.search.TranspositionTable;
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.Position;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fits Multi-ProbCut models from self-play.
+ * Games are played by a shallow search with some random moves mixed in for variety. Every position
+ * reached is then searched to each depth up to the maximum, and for each game stage and depth a linear
+ * model of the deep score against a shallow score is fitted and written to a file {@link ProbCut#read} loads.
+ * Positions where either score is a proven win or loss are left out, since those scores are not on
+ * the evaluation's scale.
+ *
+ * Usage: {@code ProbCutCalibration <maxDepth> <games> <output> [seed]}
+ */
+public class ProbCutCalibration {
+    /** The number of game stages, by discs on the board. */
+    public static final int STAGES = 6;
+
+    // squares left to play from the starting position
+    private static final int PLAYABLE = BitBoard.SQUARES - 4;
+    private static final int TABLE_MB = 64;
+    private static final int PLAYER_DEPTH = 2;
+    private static final double RANDOM_MOVE_RATE = 0.2;
+
+    /**
+     * @param position A position
+     * @return Its game stage, from 0 for the opening to STAGES - 1 for the endgame
+     */
+    public static int stage(Position position) {
+        int played = PLAYABLE - position.getEmptyCount();
+        return Math.min(STAGES - 1, played * STAGES / PLAYABLE);
+    }
+
+    /**
+     * The depth of the shallow search used to predict a deep one: about a third as deep,
+     * with the same parity, since Othello scores swing with whose move it is at the horizon.
+     * @param depth The deep search depth
+     * @return The shallow search depth
+     */
+    public static int shallowDepth(int depth) {
+        int shallow = Math.max(1, depth / 3);
+        if ((depth - shallow) % 2 != 0) {
+            shallow = shallow > 1 ? shallow - 1 : shallow + 1;
+        }
+        return shallow;
+    }
+
+    /**
+     * Plays games for calibration positions.
+     * @param games The number of games
+     * @param seed The random seed
+     * @return Every unfinished position reached
+     */
+    public static List<Position> selfPlayPositions(int games, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        AlphaBeta<Position> player = SearchBenchmark.orderedEngine(new TranspositionTable(1));
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        List<Position> positions = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            Position position = new Position();
+            while (position.generateMoves(moves) > 0) {
+                positions.add(new Position(position));
+                int move;
+                if (random.nextDouble() < RANDOM_MOVE_RATE) {
+                    move = moves.get(random.nextInt(moves.size()));
+                } else {
+                    player.search(position, PLAYER_DEPTH);
+                    move = player.getBestMove();
+                }
+                position.makeMove(move);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Fits models for every stage and every depth from 3 to maxDepth.
+     * @param positions The sample positions
+     * @param maxDepth The deepest search to predict
+     * @return The fitted models; a stage and depth without enough samples has none
+     */
+    public static ProbCut<Position> calibrate(List<Position> positions, int maxDepth) {
+        AlphaBeta<Position> engine = SearchBenchmark.orderedEngine(new TranspositionTable(TABLE_MB));
+        List<List<double[]>> samples = new ArrayList<>();
+        for (int stage = 0; stage < STAGES; stage++) {
+            samples.add(new ArrayList<>());
+        }
+        for (Position position : positions) {
+            engine.getTranspositionTable().clear();
+            double[] scores = new double[maxDepth + 1];
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                scores[depth] = engine.search(position, depth);
+            }
+            samples.get(stage(position)).add(scores);
+        }
+
+        ProbCut<Position> probCut = new ProbCut<>(STAGES, maxDepth, ProbCutCalibration::stage);
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int depth = 3; depth <= maxDepth; depth++) {
+                int shallowDepth = shallowDepth(depth);
+                List<double[]> usable = new ArrayList<>();
+                for (double[] scores : samples.get(stage)) {
+                    if (Math.abs(scores[depth]) < Position.TERMINAL_WEIGHT
+                            && Math.abs(scores[shallowDepth]) < Position.TERMINAL_WEIGHT) {
+                        usable.add(scores);
+                    }
+                }
+                double[] shallow = new double[usable.size()];
+                double[] deep = new double[usable.size()];
+                for (int i = 0; i < usable.size(); i++) {
+                    shallow[i] = usable.get(i)[shallowDepth];
+                    deep[i] = usable.get(i)[depth];
+                }
+                probCut.setModel(stage, depth, ProbCut.Model.fit(shallowDepth, shallow, deep));
+            }
+        }
+        return probCut;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: ProbCutCalibration <maxDepth> <games> <output> [seed]");
+            System.exit(1);
+        }
+        int maxDepth = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 5940;
+
+        List<Position> positions = selfPlayPositions(games, seed);
+        System.out.printf("%d positions from %d games%n", positions.size(), games);
+        ProbCut<Position> probCut = calibrate(positions, maxDepth);
+        System.out.printf("%6s %6s %8s %10s %10s %10s%n", "stage", "depth", "shallow", "slope", "intercept", "sigma");
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int depth = 3; depth <= maxDepth; depth++) {
+                ProbCut.Model model = probCut.getModel(stage, depth);
+                if (model != null) {
+                    System.out.printf("%6d %6d %8d %10.3f %10.2f %10.2f%n", stage, depth,
+                            model.shallowDepth(), model.slope(), model.intercept(), model.sigma());
+                }
+            }
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(args[2]))) {
+            probCut.write(out);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package othello.benchmark;
+
+import graph.search.AlphaBeta;
+import graph.search.MTDF;
+import graph.search.MoveList;
+import graph.search.MoveOrdering;
+import graph.search.TranspositionTable;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.BoardEvaluator;
+import othello.gamelogic.strategies.WeightedEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Compares alpha-beta configurations by searching the same positions to the same depth.
+ * For each configuration it reports the total nodes, the time, the first-move cutoff rate
+ * and the effective branching factor (nodes per position, to the power 1 / depth).
+ * Each configuration names the driver that runs the iterations, as MinimaxStrategy's engines do.
+ *
+ * Usage: {@code SearchBenchmark <depth> [positions] [seed]}
+ */
+public class SearchBenchmark {
+    private static final int TABLE_MB = 64;
+    private static final double ASPIRATION_WINDOW = 40;
+    // remaining depth from which the "pvs+etc" configuration tries enhanced transposition cutoffs
+    private static final int ETC_DEPTH = 5;
+
+    /**
+     * How each iteration of the deepening is searched.
+     */
+    public enum Driver {
+        /** One full-window search. */
+        FULL_WINDOW,
+        /** An aspiration window around the previous iteration's score. */
+        ASPIRATION,
+        /** MTD(f) zero-window passes from the previous iteration's score. */
+        MTDF
+    }
+
+    /**
+     * A named way of setting up the engine.
+     * @param name The label printed in the report
+     * @param driver How each iteration is searched
+     * @param setup Applies the options to a fresh engine
+     */
+    public record Configuration(String name, Driver driver, Consumer<AlphaBeta<Position>> setup) {
+    }
+
+    /**
+     * The result of searching every position with one configuration.
+     * @param name The configuration label
+     * @param nodes The total positions visited
+     * @param nanos The total search time
+     * @param firstMoveCutoffRate The fraction of cutoffs caused by the first move
+     * @param branchingFactor The effective branching factor
+     * @param researches The null-window and aspiration re-searches
+     */
+    public record Result(String name, long nodes, long nanos, double firstMoveCutoffRate, double branchingFactor,
+                         long researches) {
+    }
+
+    /**
+     * @return The configurations compared by default, from plain alpha-beta to every ordering option
+     */
+    public static List<Configuration> defaultConfigurations() {
+        List<Configuration> configurations = new ArrayList<>();
+        configurations.add(new Configuration("table move", Driver.FULL_WINDOW, engine -> { }));
+        configurations.add(new Configuration("killers+history", Driver.FULL_WINDOW, engine ->
+                engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY))));
+        configurations.add(new Configuration("+shallow search", Driver.FULL_WINDOW, engine -> {
+            engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+            engine.setShallowSearchDepth(4);
+        }));
+        configurations.add(new Configuration("pvs+aspiration", Driver.ASPIRATION, engine -> {
+            engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+            engine.setPrincipalVariation(true);
+        }));
+        configurations.add(new Configuration("pvs+lmr", Driver.ASPIRATION, engine -> {
+            engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+            engine.setPrincipalVariation(true);
+            engine.setLateMoveReductions(LmrBenchmark.defaultReductions());
+        }));
+        configurations.add(new Configuration("pvs+etc", Driver.ASPIRATION, engine -> {
+            engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+            engine.setPrincipalVariation(true);
+            engine.setEnhancedTranspositionCutoffDepth(ETC_DEPTH);
+        }));
+        configurations.add(new Configuration("mtd(f)", Driver.MTDF, engine ->
+                engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY))));
+        return configurations;
+    }
+
+    /**
+     * Builds reproducible test positions by playing random moves from the start.
+     * @param count The number of positions
+     * @param seed The random seed
+     * @return Positions between 10 and 40 plies into the game, none of them finished
+     */
+    public static List<Position> samplePositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        List<Position> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Position position = new Position();
+            int plies = random.nextInt(10, 41);
+            for (int ply = 0; ply < plies && position.generateMoves(moves) > 0; ply++) {
+                position.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (!position.isGameOver()) {
+                positions.add(new Position(position));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * @param table The transposition table for the engine
+     * @return An engine with the weighted evaluator and killer and history move ordering
+     */
+    static AlphaBeta<Position> orderedEngine(TranspositionTable table) {
+        BoardEvaluator evaluator = new WeightedEvaluator();
+        AlphaBeta<Position> engine = new AlphaBeta<>(
+                p -> evaluator.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs()), Position.MAX_MOVES);
+        engine.setTranspositionTable(table);
+        engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        return engine;
+    }
+
+    /**
+     * Searches every position iteratively deepened to the given depth, with a fresh table and engine.
+     * @param configuration The engine setup to measure
+     * @param positions The positions to search
+     * @param depth The final search depth
+     * @return The totals for this configuration
+     */
+    public static Result run(Configuration configuration, List<Position> positions, int depth) {
+        BoardEvaluator evaluator = new WeightedEvaluator();
+        AlphaBeta<Position> engine = new AlphaBeta<>(
+                p -> evaluator.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs()), Position.MAX_MOVES);
+        TranspositionTable table = new TranspositionTable(TABLE_MB);
+        engine.setTranspositionTable(table);
+        configuration.setup().accept(engine);
+        MTDF<Position> mtdf = new MTDF<>(engine);
+
+        long nodes = 0;
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+        long researches = 0;
+        long start = System.nanoTime();
+        for (Position position : positions) {
+            table.clear();
+            if (engine.getMoveOrdering() != null) {
+                engine.getMoveOrdering().clear();
+            }
+            engine.resetNodes();
+            double score = engine.search(position, 1);
+            for (int d = 2; d <= depth; d++) {
+                score = switch (configuration.driver()) {
+                    case FULL_WINDOW -> engine.search(position, d);
+                    case ASPIRATION -> engine.searchWithAspiration(position, d, score, ASPIRATION_WINDOW);
+                    case MTDF -> mtdf.search(position, d, score);
+                };
+            }
+            nodes += engine.getNodes();
+            cutoffs += engine.getCutoffs();
+            firstMoveCutoffs += engine.getFirstMoveCutoffs();
+            researches += engine.getResearches();
+        }
+        long elapsed = System.nanoTime() - start;
+        double rate = cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+        double branching = Math.pow((double) nodes / positions.size(), 1.0 / depth);
+        return new Result(configuration.name(), nodes, elapsed, rate, branching, researches);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: SearchBenchmark <depth> [positions] [seed]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 5940;
+        List<Position> positions = samplePositions(count, seed);
+
+        System.out.printf("%d positions, depth %d%n", count, depth);
+        System.out.printf("%-18s %14s %10s %14s %10s %8s %10s%n",
+                "configuration", "nodes", "ms", "nodes/sec", "1st cut", "EBF", "re-search");
+        for (Configuration configuration : defaultConfigurations()) {
+            Result result = run(configuration, positions, depth);
+            System.out.printf("%-18s %14d %10.1f %14.0f %9.1f%% %8.2f %10d%n", result.name(), result.nodes(),
+                    result.nanos() / 1e6, result.nodes() / (result.nanos() / 1e9),
+                    result.firstMoveCutoffRate() * 100, result.branchingFactor(), result.researches());
+        }
+    }
+}
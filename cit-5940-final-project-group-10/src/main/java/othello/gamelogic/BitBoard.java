@@ -0,0 +1,235 @@
+package othello.gamelogic;
+
+/**
+ * Bitboard primitives for Othello positions.
+ * A position is stored as two 64-bit masks, one per color, where bit {@code x * 8 + y}
+ * corresponds to {@code board[x][y]} in the BoardSpace view used by the GUI.
+ */
+public final class BitBoard {
+    public static final int SQUARES = 64;
+
+    // Masks that clear the y == 0 and y == 7 columns, used to stop shifts wrapping between rows
+    private static final long NOT_Y0 = 0xfefefefefefefefeL;
+    private static final long NOT_Y7 = 0x7f7f7f7f7f7f7f7fL;
+    private static final long INNER_Y = NOT_Y0 & NOT_Y7;
+
+    public static final long START_BLACK = bit(3, 4) | bit(4, 3);
+    public static final long START_WHITE = bit(3, 3) | bit(4, 4);
+
+    private BitBoard() {
+    }
+
+    /**
+     * @return the square index of board coordinates (x, y)
+     */
+    public static int square(int x, int y) {
+        return x * OthelloGame.GAME_BOARD_SIZE + y;
+    }
+
+    /**
+     * @return the x coordinate of a square index
+     */
+    public static int squareX(int square) {
+        return square >>> 3;
+    }
+
+    /**
+     * @return the y coordinate of a square index
+     */
+    public static int squareY(int square) {
+        return square & 7;
+    }
+
+    /**
+     * @return a mask with only the bit for (x, y) set
+     */
+    public static long bit(int x, int y) {
+        return 1L << square(x, y);
+    }
+
+    /**
+     * @return the number of discs in a mask
+     */
+    public static int count(long discs) {
+        return Long.bitCount(discs);
+    }
+
+    /**
+     * Computes every legal destination for a player using shift-and-mask flood fills.
+     * @param player discs of the player to move
+     * @param opponent discs of the opposing player
+     * @return mask of empty squares that flip at least one opposing disc
+     */
+    public static long legalMoves(long player, long opponent) {
+        long empty = ~(player | opponent);
+        long inner = opponent & INNER_Y;
+        long moves = 0;
+        moves |= movesUp(player, inner, empty, 1);
+        moves |= movesDown(player, inner, empty, 1);
+        moves |= movesUp(player, opponent, empty, 8);
+        moves |= movesDown(player, opponent, empty, 8);
+        moves |= movesUp(player, inner, empty, 7);
+        moves |= movesDown(player, inner, empty, 7);
+        moves |= movesUp(player, inner, empty, 9);
+        moves |= movesDown(player, inner, empty, 9);
+        return moves;
+    }
+
+    // Fill along one direction towards higher square indices, at most 6 opposing discs long
+    private static long movesUp(long player, long opponent, long empty, int shift) {
+        long t = opponent & (player << shift);
+        t |= opponent & (t << shift);
+        t |= opponent & (t << shift);
+        t |= opponent & (t << shift);
+        t |= opponent & (t << shift);
+        t |= opponent & (t << shift);
+        return empty & (t << shift);
+    }
+
+    // Fill along one direction towards lower square indices, at most 6 opposing discs long
+    private static long movesDown(long player, long opponent, long empty, int shift) {
+        long t = opponent & (player >>> shift);
+        t |= opponent & (t >>> shift);
+        t |= opponent & (t >>> shift);
+        t |= opponent & (t >>> shift);
+        t |= opponent & (t >>> shift);
+        t |= opponent & (t >>> shift);
+        return empty & (t >>> shift);
+    }
+
+    /**
+     * Computes the discs flipped by placing a disc on a square.
+     * @param player discs of the player to move
+     * @param opponent discs of the opposing player
+     * @param square the destination square
+     * @return mask of opposing discs that are flipped, 0 if the move is illegal
+     */
+    public static long flips(long player, long opponent, int square) {
+        long move = 1L << square;
+        long inner = opponent & INNER_Y;
+        long flipped = 0;
+        flipped |= flipsUp(move, player, inner, 1);
+        flipped |= flipsDown(move, player, inner, 1);
+        flipped |= flipsUp(move, player, opponent, 8);
+        flipped |= flipsDown(move, player, opponent, 8);
+        flipped |= flipsUp(move, player, inner, 7);
+        flipped |= flipsDown(move, player, inner, 7);
+        flipped |= flipsUp(move, player, inner, 9);
+        flipped |= flipsDown(move, player, inner, 9);
+        return flipped;
+    }
+
+    private static long flipsUp(long move, long player, long opponent, int shift) {
+        long flipped = 0;
+        long cursor = (move << shift) & opponent;
+        while (cursor != 0) {
+            flipped |= cursor;
+            long next = cursor << shift;
+            if ((next & player) != 0) {
+                return flipped;
+            }
+            cursor = next & opponent;
+        }
+        return 0;
+    }
+
+    private static long flipsDown(long move, long player, long opponent, int shift) {
+        long flipped = 0;
+        long cursor = (move >>> shift) & opponent;
+        while (cursor != 0) {
+            flipped |= cursor;
+            long next = cursor >>> shift;
+            if ((next & player) != 0) {
+                return flipped;
+            }
+            cursor = next & opponent;
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the player's discs that anchor each flipped line of a move.
+     * These are the "origins" the GUI draws lines from.
+     * @param player discs of the player to move
+     * @param opponent discs of the opposing player
+     * @param square the destination square
+     * @return mask of the player's discs that close a flipped line
+     */
+    public static long origins(long player, long opponent, int square) {
+        long move = 1L << square;
+        long inner = opponent & INNER_Y;
+        long anchors = 0;
+        anchors |= originUp(move, player, inner, 1);
+        anchors |= originDown(move, player, inner, 1);
+        anchors |= originUp(move, player, opponent, 8);
+        anchors |= originDown(move, player, opponent, 8);
+        anchors |= originUp(move, player, inner, 7);
+        anchors |= originDown(move, player, inner, 7);
+        anchors |= originUp(move, player, inner, 9);
+        anchors |= originDown(move, player, inner, 9);
+        return anchors;
+    }
+
+    private static long originUp(long move, long player, long opponent, int shift) {
+        long cursor = (move << shift) & opponent;
+        while (cursor != 0) {
+            long next = cursor << shift;
+            if ((next & player) != 0) {
+                return next;
+            }
+            cursor = next & opponent;
+        }
+        return 0;
+    }
+
+    private static long originDown(long move, long player, long opponent, int shift) {
+        long cursor = (move >>> shift) & opponent;
+        while (cursor != 0) {
+            long next = cursor >>> shift;
+            if ((next & player) != 0) {
+                return next;
+            }
+            cursor = next & opponent;
+        }
+        return 0;
+    }
+
+    /**
+     * Builds the disc mask of one color from a BoardSpace view.
+     * @param board the board to read
+     * @param type the color to collect
+     * @return mask of squares holding that color
+     */
+    public static long fromBoard(BoardSpace[][] board, BoardSpace.SpaceType type) {
+        long discs = 0;
+        for (int x = 0; x < board.length; x++) {
+            for (int y = 0; y < board[x].length; y++) {
+                if (board[x][y].getType() == type) {
+                    discs |= bit(x, y);
+                }
+            }
+        }
+        return discs;
+    }
+
+    /**
+     * Builds a BoardSpace view of a position, used as an adapter for the GUI and older APIs.
+     * @param black mask of black discs
+     * @param white mask of white discs
+     * @return a freshly allocated board of interned spaces
+     */
+    public static BoardSpace[][] toBoard(long black, long white) {
+        int size = OthelloGame.GAME_BOARD_SIZE;
+        BoardSpace[][] board = new BoardSpace[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                long bit = bit(x, y);
+                BoardSpace.SpaceType type = (black & bit) != 0 ? BoardSpace.SpaceType.BLACK
+                        : (white & bit) != 0 ? BoardSpace.SpaceType.WHITE
+                        : BoardSpace.SpaceType.EMPTY;
+                board[x][y] = BoardSpace.of(x, y, type);
+            }
+        }
+        return board;
+    }
+}
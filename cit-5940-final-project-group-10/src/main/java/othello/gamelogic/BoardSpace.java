@@ -2,28 +2,51 @@ package othello.gamelogic;
 
 import javafx.scene.paint.Color;
 
-import java.util.Objects;
-
 /**
  * Represents a logical space on the Othello Board.
  * Keeps track of coordinates and the type of the current space.
+ * Spaces are immutable flyweights: there is exactly one instance per square and type, obtained with {@link #of}.
  */
 public class BoardSpace {
 
+    // one interned instance per (type, square)
+    private static final BoardSpace[][] SPACES = new BoardSpace[SpaceType.values().length][BitBoard.SQUARES];
+
+    static {
+        for (SpaceType type : SpaceType.values()) {
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                SPACES[type.ordinal()][square] = new BoardSpace(BitBoard.squareX(square), BitBoard.squareY(square), type);
+            }
+        }
+    }
+
     private final int x;
     private final int y;
-    private SpaceType type;
+    private final SpaceType type;
 
-    public BoardSpace(int x, int y, SpaceType type) {
+    private BoardSpace(int x, int y, SpaceType type) {
         this.x = x;
         this.y = y;
-        setType(type);
+        this.type = type;
+    }
+
+    /**
+     * @param x the x coordinate of the space
+     * @param y the y coordinate of the space
+     * @param type the type of the space
+     * @return the canonical space for these coordinates and type
+     */
+    public static BoardSpace of(int x, int y, SpaceType type) {
+        return SPACES[type.ordinal()][BitBoard.square(x, y)];
     }
 
-    public BoardSpace(BoardSpace other) {
-        this.x = other.x;
-        this.y = other.y;
-        this.type = other.type;
+    /**
+     * @param square the square index, see {@link BitBoard#square(int, int)}
+     * @param type the type of the space
+     * @return the canonical space for this square and type
+     */
+    public static BoardSpace of(int square, SpaceType type) {
+        return SPACES[type.ordinal()][square];
     }
 
     // auto generated equals and hash
@@ -37,7 +60,7 @@ public class BoardSpace {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return getSquare();
     }
 
     /**
@@ -48,25 +71,24 @@ public class BoardSpace {
     }
 
     /**
-     * @return the x coordinate of this space
+     * @return the y coordinate of this space
      */
     public int getY() {
         return y;
     }
 
     /**
-     * @return the Space of the current tile
+     * @return the square index of this space, the int form moves take inside the engine
      */
-    public SpaceType getType() {
-        return type;
+    public int getSquare() {
+        return BitBoard.square(x, y);
     }
 
     /**
-     * Sets the type of the tile, then adds an othello chip (circle) to the tile.
-     * @param type Space to set this space to.
+     * @return the Space of the current tile
      */
-    public void setType(SpaceType type) {
-        this.type = type;
+    public SpaceType getType() {
+        return type;
     }
 
     /**
@@ -0,0 +1,533 @@
+package othello.gamelogic;
+
+import java.util.Arrays;
+
+/**
+ * An exact endgame solver working directly on bitboards.
+ * It finds the final disc margin under perfect play, with empty squares going to the winner
+ * as in {@link Position#getFinalScore()}, or in win/loss/draw mode only its sign, which is much faster.
+ * The search is negamax with alpha-beta over two disc masks, and the last four empty squares are
+ * special-cased: no move generation, just a flip test on each remaining square.
+ * Moves are tried by quadrant parity (a move into a region with an odd number of empties first), and with
+ * more empties fastest-first, least opponent mobility first, with a small table of bounds at the top of the tree.
+ * Later moves are first tested with a null window, and nodes that need a high score are cut when the
+ * opponent's stable discs already rule it out.
+ * An instance keeps scratch state and must only be used by one thread at a time.
+ */
+public class EndgameSolver {
+    /** Best move value when the position has no move, because the game is over. */
+    public static final int NO_MOVE = -1;
+
+    /**
+     * What the solver proves.
+     */
+    public enum Mode {
+        /** The exact final disc margin. */
+        EXACT,
+        /** Only whether the side to move wins, loses or draws: 1, -1 or 0. */
+        WIN_LOSS_DRAW
+    }
+
+    // nodes with at least this many empties sort their moves by opponent mobility, the rest by parity only
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    // nodes with at least this many empties use the table of bounds
+    private static final int TABLE_EMPTIES = 7;
+    private static final int TABLE_BITS = 20;
+
+    private static final int MAX_SCORE = BitBoard.SQUARES;
+
+    private static final long CORNERS = 0x81000000_00000081L;
+    private static final long EDGES = 0xFF818181_818181FFL;
+    private static final long NOT_Y0 = 0xfefefefefefefefeL;
+    private static final long NOT_Y7 = 0x7f7f7f7f7f7f7f7fL;
+
+    // the four 4x4 quadrants, the regions parity is counted in
+    private static final long[] QUADRANTS = {
+            0x00000000_0F0F0F0FL, 0x00000000_F0F0F0F0L, 0x0F0F0F0F_00000000L, 0xF0F0F0F0_00000000L
+    };
+
+    // the squares around each square
+    private static final long[] NEIGHBOURS = new long[BitBoard.SQUARES];
+
+    static {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            NEIGHBOURS[square] = neighbours(1L << square);
+        }
+    }
+
+    // below this alpha, the stability bound is too weak to be worth computing
+    private static final int STABILITY_ALPHA = 0;
+
+    private final long[] tablePlayer = new long[1 << TABLE_BITS];
+    private final long[] tableOpponent = new long[1 << TABLE_BITS];
+    private final byte[] tableLower = new byte[1 << TABLE_BITS];
+    private final byte[] tableUpper = new byte[1 << TABLE_BITS];
+    private final byte[] tableMove = new byte[1 << TABLE_BITS];
+
+    // move lists by number of empties, which only shrinks along a line of play
+    private final int[][] moveBuffer = new int[BitBoard.SQUARES + 1][BitBoard.SQUARES];
+    private final long[][] flipBuffer = new long[BitBoard.SQUARES + 1][BitBoard.SQUARES];
+    private final int[][] keyBuffer = new int[BitBoard.SQUARES + 1][BitBoard.SQUARES];
+    private final int[] lastFour = new int[4];
+
+    private long nodes;
+    private int bestMove = NO_MOVE;
+
+    /**
+     * Solves a position for the side to move.
+     * @param position The position to solve; it is not modified
+     * @param mode Whether to find the exact margin or only win, loss or draw
+     * @return The final margin for the side to move, or its sign in win/loss/draw mode
+     */
+    public int solve(Position position, Mode mode) {
+        int alpha = mode == Mode.EXACT ? -MAX_SCORE : -1;
+        int beta = mode == Mode.EXACT ? MAX_SCORE : 1;
+        int score = solve(position.getPlayerDiscs(), position.getOpponentDiscs(), alpha, beta);
+        return mode == Mode.EXACT ? score : Integer.signum(score);
+    }
+
+    /**
+     * Solves a position within a window. A score at or below alpha is an upper bound
+     * and a score at or above beta is a lower bound.
+     * @param player The discs of the side to move
+     * @param opponent The discs of the other side
+     * @param alpha The lower end of the window
+     * @param beta The upper end of the window
+     * @return The final margin for the side to move
+     */
+    public int solve(long player, long opponent, int alpha, int beta) {
+        bestMove = NO_MOVE;
+        long moves = BitBoard.legalMoves(player, opponent);
+        if (moves == 0) {
+            if (BitBoard.legalMoves(opponent, player) == 0) {
+                return finalScore(player, opponent);
+            }
+            bestMove = Position.PASS;
+            return -node(opponent, player, -beta, -alpha);
+        }
+
+        nodes++;
+        long empties = ~(player | opponent);
+        int empty = Long.bitCount(empties);
+        int count = orderMoves(player, opponent, moves, empties, empty, NO_MOVE);
+        int bestScore = -MAX_SCORE - 1;
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[empty][i];
+            long flipped = flipBuffer[empty][i];
+            int score = -node(opponent & ~flipped, player | flipped | (1L << move), -beta, -Math.max(alpha, bestScore));
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * @return The best move of the last solve, {@link Position#PASS} if the side to move had to pass,
+     * or NO_MOVE if the game was over
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return The number of positions visited since the last reset
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Resets the node counter.
+     */
+    public void resetNodes() {
+        nodes = 0;
+    }
+
+    /**
+     * Empties the table of bounds. Its entries are exact facts about positions,
+     * so it only needs clearing to measure a solve from scratch.
+     */
+    public void clear() {
+        Arrays.fill(tablePlayer, 0);
+        Arrays.fill(tableOpponent, 0);
+    }
+
+    // Dispatches on the number of empties
+    private int node(long player, long opponent, int alpha, int beta) {
+        long empties = ~(player | opponent);
+        switch (Long.bitCount(empties)) {
+            case 0:
+                nodes++;
+                return Long.bitCount(player) - Long.bitCount(opponent);
+            case 1:
+                return last1(player, opponent, Long.numberOfTrailingZeros(empties));
+            case 2: {
+                int first = Long.numberOfTrailingZeros(empties);
+                int second = Long.numberOfTrailingZeros(empties & (empties - 1));
+                return last2(player, opponent, alpha, beta, first, second, false);
+            }
+            case 3: {
+                int first = Long.numberOfTrailingZeros(empties);
+                empties &= empties - 1;
+                int second = Long.numberOfTrailingZeros(empties);
+                empties &= empties - 1;
+                return last3(player, opponent, alpha, beta, first, second, Long.numberOfTrailingZeros(empties), false);
+            }
+            case 4:
+                return last4(player, opponent, alpha, beta, empties, false);
+            default:
+                return search(player, opponent, alpha, beta, empties, false);
+        }
+    }
+
+    private int search(long player, long opponent, int alpha, int beta, long empties, boolean passed) {
+        nodes++;
+        int empty = Long.bitCount(empties);
+        long moves = BitBoard.legalMoves(player, opponent);
+        if (moves == 0) {
+            if (passed) {
+                return finalScore(player, opponent);
+            }
+            return -search(opponent, player, -beta, -alpha, empties, true);
+        }
+
+        // the opponent's stable discs are lost for good, which bounds how well this can end
+        if (alpha >= STABILITY_ALPHA) {
+            int upper = MAX_SCORE - 2 * Long.bitCount(stableDiscs(opponent, player));
+            if (upper <= alpha) {
+                return upper;
+            }
+            beta = Math.min(beta, upper);
+        }
+
+        int slot = 0;
+        int hashMove = NO_MOVE;
+        if (empty >= TABLE_EMPTIES) {
+            slot = slot(player, opponent);
+            if (tablePlayer[slot] == player && tableOpponent[slot] == opponent) {
+                int lower = tableLower[slot];
+                int upper = tableUpper[slot];
+                if (lower >= beta) {
+                    return lower;
+                }
+                if (upper <= alpha) {
+                    return upper;
+                }
+                if (lower == upper) {
+                    return lower;
+                }
+                alpha = Math.max(alpha, lower);
+                beta = Math.min(beta, upper);
+                hashMove = tableMove[slot];
+            }
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -MAX_SCORE - 1;
+        int localBest = NO_MOVE;
+        int count = orderMoves(player, opponent, moves, empties, empty, hashMove);
+        int[] moveList = moveBuffer[empty];
+        long[] flipList = flipBuffer[empty];
+        for (int i = 0; i < count; i++) {
+            int move = moveList[i];
+            long flipped = flipList[i];
+            long nextPlayer = opponent & ~flipped;
+            long nextOpponent = player | flipped | (1L << move);
+            int score;
+            if (i == 0) {
+                score = -child(nextPlayer, nextOpponent, -beta, -alpha, empties & ~(1L << move), empty - 1);
+            } else {
+                // prove the move is no better than alpha with a null window, and search it fully only if it is
+                score = -child(nextPlayer, nextOpponent, -alpha - 1, -alpha, empties & ~(1L << move), empty - 1);
+                if (score > alpha && score < beta) {
+                    score = -child(nextPlayer, nextOpponent, -beta, -alpha, empties & ~(1L << move), empty - 1);
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                localBest = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (empty >= TABLE_EMPTIES) {
+            tablePlayer[slot] = player;
+            tableOpponent[slot] = opponent;
+            tableLower[slot] = (byte) (bestScore > originalAlpha ? bestScore : -MAX_SCORE);
+            tableUpper[slot] = (byte) (bestScore < beta ? bestScore : MAX_SCORE);
+            tableMove[slot] = (byte) localBest;
+        }
+        return bestScore;
+    }
+
+    private int child(long player, long opponent, int alpha, int beta, long empties, int empty) {
+        return empty <= 4 ? node(player, opponent, alpha, beta) : search(player, opponent, alpha, beta, empties, false);
+    }
+
+    // Fills this depth's buffers with the moves in the order to try them and returns how many there are
+    private int orderMoves(long player, long opponent, long moves, long empties, int empty, int hashMove) {
+        long odd = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empties & quadrant) & 1) != 0) {
+                odd |= quadrant;
+            }
+        }
+        int[] moveList = moveBuffer[empty];
+        long[] flipList = flipBuffer[empty];
+        int[] keys = keyBuffer[empty];
+        int count = 0;
+        for (long remaining = moves; remaining != 0; remaining &= remaining - 1) {
+            int move = Long.numberOfTrailingZeros(remaining);
+            long flipped = BitBoard.flips(player, opponent, move);
+            int key;
+            if (move == hashMove) {
+                key = Integer.MIN_VALUE;
+            } else if (empty >= FASTEST_FIRST_EMPTIES) {
+                long nextPlayer = opponent & ~flipped;
+                long nextOpponent = player | flipped | (1L << move);
+                long replies = BitBoard.legalMoves(nextPlayer, nextOpponent);
+                key = (Long.bitCount(replies) + Long.bitCount(replies & CORNERS)) * 64
+                        + Long.bitCount(neighbours(nextOpponent) & empties & ~(1L << move)) * 2
+                        + ((odd >>> move & 1) == 0 ? 1 : 0);
+            } else {
+                key = (odd >>> move & 1) == 0 ? 1 : 0;
+            }
+            // insertion sort by key, lowest first
+            int i = count++;
+            while (i > 0 && keys[i - 1] > key) {
+                moveList[i] = moveList[i - 1];
+                flipList[i] = flipList[i - 1];
+                keys[i] = keys[i - 1];
+                i--;
+            }
+            moveList[i] = move;
+            flipList[i] = flipped;
+            keys[i] = key;
+        }
+        return count;
+    }
+
+    // Four empties: try them in parity order, a square alone in its quadrant first
+    private int last4(long player, long opponent, int alpha, int beta, long empties, boolean passed) {
+        int lone = 0;
+        int paired = 3;
+        for (long remaining = empties; remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            if ((Long.bitCount(empties & quadrantOf(square)) & 1) != 0) {
+                lastFour[lone++] = square;
+            } else {
+                lastFour[paired--] = square;
+            }
+        }
+        return last4(player, opponent, alpha, beta, lastFour[0], lastFour[1], lastFour[2], lastFour[3], passed);
+    }
+
+    private int last4(long player, long opponent, int alpha, int beta,
+                      int first, int second, int third, int fourth, boolean passed) {
+        nodes++;
+        int bestScore = -MAX_SCORE - 1;
+        long flipped;
+        if ((flipped = flips(player, opponent, first)) != 0) {
+            bestScore = -last3(opponent & ~flipped, player | flipped | (1L << first), -beta, -alpha,
+                    second, third, fourth, false);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+        }
+        if ((flipped = flips(player, opponent, second)) != 0) {
+            int score = -last3(opponent & ~flipped, player | flipped | (1L << second), -beta,
+                    -Math.max(alpha, bestScore), first, third, fourth, false);
+            if (score > bestScore) {
+                bestScore = score;
+                if (score >= beta) {
+                    return bestScore;
+                }
+            }
+        }
+        if ((flipped = flips(player, opponent, third)) != 0) {
+            int score = -last3(opponent & ~flipped, player | flipped | (1L << third), -beta,
+                    -Math.max(alpha, bestScore), first, second, fourth, false);
+            if (score > bestScore) {
+                bestScore = score;
+                if (score >= beta) {
+                    return bestScore;
+                }
+            }
+        }
+        if ((flipped = flips(player, opponent, fourth)) != 0) {
+            int score = -last3(opponent & ~flipped, player | flipped | (1L << fourth), -beta,
+                    -Math.max(alpha, bestScore), first, second, third, false);
+            if (score > bestScore) {
+                bestScore = score;
+            }
+        }
+        if (bestScore == -MAX_SCORE - 1) {
+            return passed ? finalScore(player, opponent)
+                    : -last4(opponent, player, -beta, -alpha, first, second, third, fourth, true);
+        }
+        return bestScore;
+    }
+
+    private int last3(long player, long opponent, int alpha, int beta,
+                      int first, int second, int third, boolean passed) {
+        nodes++;
+        int bestScore = -MAX_SCORE - 1;
+        long flipped;
+        if ((flipped = flips(player, opponent, first)) != 0) {
+            bestScore = -last2(opponent & ~flipped, player | flipped | (1L << first), -beta, -alpha,
+                    second, third, false);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+        }
+        if ((flipped = flips(player, opponent, second)) != 0) {
+            int score = -last2(opponent & ~flipped, player | flipped | (1L << second), -beta,
+                    -Math.max(alpha, bestScore), first, third, false);
+            if (score > bestScore) {
+                bestScore = score;
+                if (score >= beta) {
+                    return bestScore;
+                }
+            }
+        }
+        if ((flipped = flips(player, opponent, third)) != 0) {
+            int score = -last2(opponent & ~flipped, player | flipped | (1L << third), -beta,
+                    -Math.max(alpha, bestScore), first, second, false);
+            if (score > bestScore) {
+                bestScore = score;
+            }
+        }
+        if (bestScore == -MAX_SCORE - 1) {
+            return passed ? finalScore(player, opponent)
+                    : -last3(opponent, player, -beta, -alpha, first, second, third, true);
+        }
+        return bestScore;
+    }
+
+    private int last2(long player, long opponent, int alpha, int beta, int first, int second, boolean passed) {
+        nodes++;
+        int bestScore = -MAX_SCORE - 1;
+        long flipped;
+        if ((flipped = flips(player, opponent, first)) != 0) {
+            bestScore = -last1(opponent & ~flipped, player | flipped | (1L << first), second);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+        }
+        if ((flipped = flips(player, opponent, second)) != 0) {
+            int score = -last1(opponent & ~flipped, player | flipped | (1L << second), first);
+            if (score > bestScore) {
+                bestScore = score;
+            }
+        }
+        if (bestScore == -MAX_SCORE - 1) {
+            return passed ? finalScore(player, opponent)
+                    : -last2(opponent, player, -beta, -alpha, first, second, true);
+        }
+        return bestScore;
+    }
+
+    // One empty: whoever can play it does, and the board is full
+    private int last1(long player, long opponent, int square) {
+        nodes++;
+        int playerCount = Long.bitCount(player);
+        long flipped = flips(player, opponent, square);
+        if (flipped != 0) {
+            return 2 * (playerCount + 1 + Long.bitCount(flipped)) - BitBoard.SQUARES;
+        }
+        flipped = flips(opponent, player, square);
+        if (flipped != 0) {
+            return 2 * (playerCount - Long.bitCount(flipped)) - BitBoard.SQUARES;
+        }
+        // nobody can play the last square, which goes to the winner
+        int margin = 2 * playerCount - (BitBoard.SQUARES - 1);
+        return margin > 0 ? margin + 1 : margin - 1;
+    }
+
+    // A disc with no opposing neighbour flips nothing, which is cheaper to see than to compute
+    private static long flips(long player, long opponent, int square) {
+        return (NEIGHBOURS[square] & opponent) == 0 ? 0 : BitBoard.flips(player, opponent, square);
+    }
+
+    // The final margin when neither side can move, with the empties going to the winner
+    private static int finalScore(long player, long opponent) {
+        int margin = Long.bitCount(player) - Long.bitCount(opponent);
+        int empties = BitBoard.SQUARES - Long.bitCount(player | opponent);
+        return margin > 0 ? margin + empties : margin < 0 ? margin - empties : 0;
+    }
+
+    // Finds discs that can never be flipped: those whose every line is full or ends in a stable disc of their color
+    private static long stableDiscs(long discs, long others) {
+        long occupied = discs | others;
+        long fullRows = fullLines(occupied, 1, NOT_Y0, NOT_Y7);
+        long fullColumns = fullLines(occupied, 8, -1L, -1L);
+        long fullDiagonals = fullLines(occupied, 9, NOT_Y0, NOT_Y7);
+        long fullAntiDiagonals = fullLines(occupied, 7, NOT_Y7, NOT_Y0);
+        long stable = discs & CORNERS;
+        stable |= discs & fullRows & fullColumns & fullDiagonals & fullAntiDiagonals;
+        while (true) {
+            long rows = fullRows | ((stable << 1) & NOT_Y0) | ((stable >>> 1) & NOT_Y7) | ~NOT_Y0 | ~NOT_Y7;
+            long columns = fullColumns | (stable << 8) | (stable >>> 8) | 0xFF00000000000000L | 0xFFL;
+            long diagonals = fullDiagonals | ((stable << 9) & NOT_Y0) | ((stable >>> 9) & NOT_Y7) | EDGES;
+            long antiDiagonals = fullAntiDiagonals | ((stable << 7) & NOT_Y7) | ((stable >>> 7) & NOT_Y0) | EDGES;
+            long grown = stable | (discs & rows & columns & diagonals & antiDiagonals);
+            if (grown == stable) {
+                return stable;
+            }
+            stable = grown;
+        }
+    }
+
+    // Marks every square whose line in one direction is completely occupied
+    private static long fullLines(long occupied, int shift, long upMask, long downMask) {
+        // a square is on a full line when walking both ways only meets occupied squares until the edge
+        long up = occupied;
+        long down = occupied;
+        for (int i = 0; i < 7; i++) {
+            up &= (up << shift & upMask) | edgeUp(shift, upMask);
+            down &= (down >>> shift & downMask) | edgeDown(shift, downMask);
+        }
+        return up & down;
+    }
+
+    // the squares with no neighbour in the up direction of a shift, whose walk ends at the edge
+    private static long edgeUp(int shift, long upMask) {
+        return ~(-1L << shift) | ~upMask;
+    }
+
+    // the squares with no neighbour in the down direction of a shift
+    private static long edgeDown(int shift, long downMask) {
+        return ~(-1L >>> shift) | ~downMask;
+    }
+
+    // the empty squares next to a set of discs, where the other side may later get moves
+    private static long neighbours(long discs) {
+        long sideways = ((discs << 1) & NOT_Y0) | ((discs >>> 1) & NOT_Y7);
+        long row = discs | sideways;
+        return sideways | (row << 8) | (row >>> 8);
+    }
+
+    private static long quadrantOf(int square) {
+        for (long quadrant : QUADRANTS) {
+            if ((quadrant >>> square & 1) != 0) {
+                return quadrant;
+            }
+        }
+        return 0;
+    }
+
+    private static int slot(long player, long opponent) {
+        long hash = player * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opponent * 0xC2B2AE3D27D4EB4FL, 31);
+        return (int) (hash >>> (Long.SIZE - TABLE_BITS));
+    }
+}
@@ -1,16 +1,16 @@
 package othello.gamelogic;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Represents the state of an Othello game for use in search algorithms.
+ * The position is held as one bitboard per color; a BoardSpace view is only built on request.
  */
 public class GameState {
+    private final long blackDiscs;
+    private final long whiteDiscs;
+    private final Player currentPlayer;
+    private final Player opponent;
     private BoardSpace[][] board;
-    private Player currentPlayer;
-    private Player opponent;
-    
+
     /**
      * Creates a new game state
      * @param board The current board configuration
@@ -18,26 +18,72 @@ public class GameState {
      * @param opponent The opposing player
      */
     public GameState(BoardSpace[][] board, Player currentPlayer, Player opponent) {
-        // Deep copy the board
-        this.board = new BoardSpace[OthelloGame.GAME_BOARD_SIZE][OthelloGame.GAME_BOARD_SIZE];
-        for (int i = 0; i < OthelloGame.GAME_BOARD_SIZE; i++) {
-            for (int j = 0; j < OthelloGame.GAME_BOARD_SIZE; j++) {
-                this.board[i][j] = new BoardSpace(board[i][j]);
-            }
-        }
-        
+        this(BitBoard.fromBoard(board, BoardSpace.SpaceType.BLACK),
+                BitBoard.fromBoard(board, BoardSpace.SpaceType.WHITE),
+                currentPlayer, opponent);
+    }
+
+    /**
+     * Creates a new game state from bitboards
+     * @param blackDiscs The mask of black discs
+     * @param whiteDiscs The mask of white discs
+     * @param currentPlayer The player whose turn it is
+     * @param opponent The opposing player
+     */
+    public GameState(long blackDiscs, long whiteDiscs, Player currentPlayer, Player opponent) {
+        this.blackDiscs = blackDiscs;
+        this.whiteDiscs = whiteDiscs;
         this.currentPlayer = currentPlayer;
         this.opponent = opponent;
     }
-    
+
     /**
-     * Gets the board configuration
+     * Gets the board configuration, built lazily from the bitboards
      * @return The current board
      */
     public BoardSpace[][] getBoard() {
+        if (board == null) {
+            board = BitBoard.toBoard(blackDiscs, whiteDiscs);
+        }
         return board;
     }
-    
+
+    /**
+     * @param color The color to get discs for
+     * @return The bitboard of discs of the given color
+     */
+    public long getDiscs(BoardSpace.SpaceType color) {
+        return color == BoardSpace.SpaceType.BLACK ? blackDiscs : whiteDiscs;
+    }
+
+    /**
+     * @return The Zobrist key of the discs and the current player to move
+     */
+    public long getZobristKey() {
+        return Zobrist.hash(blackDiscs, whiteDiscs, currentPlayer.getColor() == BoardSpace.SpaceType.BLACK);
+    }
+
+    /**
+     * @return The bitboard of the current player's discs
+     */
+    public long getPlayerDiscs() {
+        return getDiscs(currentPlayer.getColor());
+    }
+
+    /**
+     * @return The bitboard of the opponent's discs
+     */
+    public long getOpponentDiscs() {
+        return getDiscs(opponent.getColor());
+    }
+
+    /**
+     * @return The mask of legal destinations for the current player
+     */
+    public long getLegalMoves() {
+        return BitBoard.legalMoves(getPlayerDiscs(), getOpponentDiscs());
+    }
+
     /**
      * Gets the current player
      * @return The current player
@@ -45,7 +91,7 @@ public class GameState {
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
-    
+
     /**
      * Gets the opponent player
      * @return The opponent player
@@ -53,66 +99,54 @@ public class GameState {
     public Player getOpponent() {
         return opponent;
     }
-    
+
     /**
      * Creates a new game state with the roles of current player and opponent swapped
      * @return A new game state with players swapped
      */
     public GameState swapPlayers() {
-        return new GameState(board, opponent, currentPlayer);
+        return new GameState(blackDiscs, whiteDiscs, opponent, currentPlayer);
     }
-    
+
     /**
      * Applies a move to the game state and returns the resulting state
      * @param move The move to apply
      * @return The resulting game state
      */
     public GameState applyMove(BoardSpace move) {
-        // Create a new state
-        GameState newState = new GameState(board, currentPlayer, opponent);
-        
-        // Get available moves for this state
-        Map<BoardSpace, List<BoardSpace>> availableMoves = currentPlayer.getAvailableMoves(board);
-        
-        // Find the move in the available moves
-        BoardSpace correspondingMove = null;
-        for (BoardSpace destination : availableMoves.keySet()) {
-            if (destination.getX() == move.getX() && destination.getY() == move.getY()) {
-                correspondingMove = destination;
-                break;
-            }
-        }
-        
-        if (correspondingMove == null) {
+        return applyMove(move.getSquare());
+    }
+
+    /**
+     * Applies a move given as a square index and returns the resulting state
+     * @param square The destination square
+     * @return The resulting game state, or this state if the move is illegal
+     */
+    public GameState applyMove(int square) {
+        long player = getPlayerDiscs();
+        long other = getOpponentDiscs();
+        long flipped = BitBoard.flips(player, other, square);
+        if (flipped == 0 || ((player | other) & (1L << square)) != 0) {
             // Invalid move, return current state
             return this;
         }
-        
-        // Apply the move
-        // Note: In a real implementation, we would create a simplified version of takeSpaces
-        // that works with our copied board rather than the actual game
-        
-        // For this skeleton, we'll leave this method incomplete
-        
+
+        player |= flipped | (1L << square);
+        other &= ~flipped;
+
         // Swap players for the next turn
-        return newState.swapPlayers();
+        if (currentPlayer.getColor() == BoardSpace.SpaceType.BLACK) {
+            return new GameState(player, other, opponent, currentPlayer);
+        }
+        return new GameState(other, player, opponent, currentPlayer);
     }
-    
+
     /**
      * Checks if the game is over (no valid moves for either player)
      * @return true if the game is over, false otherwise
      */
     public boolean isGameOver() {
-        Map<BoardSpace, List<BoardSpace>> currentPlayerMoves = currentPlayer.getAvailableMoves(board);
-        
-        if (!currentPlayerMoves.isEmpty()) {
-            return false;
-        }
-        
-        // If current player has no moves, check opponent
-        GameState swappedState = swapPlayers();
-        Map<BoardSpace, List<BoardSpace>> opponentMoves = swappedState.getCurrentPlayer().getAvailableMoves(swappedState.getBoard());
-        
-        return opponentMoves.isEmpty();
+        return BitBoard.legalMoves(blackDiscs, whiteDiscs) == 0
+                && BitBoard.legalMoves(whiteDiscs, blackDiscs) == 0;
     }
-}
\ No newline at end of file
+}
@@ -5,11 +5,14 @@ import java.util.*;
 /**
  * Models a board of Othello.
  * Includes methods to get available moves and take spaces.
+ * The position itself is held as one bitboard per color; the BoardSpace grid is a view kept in sync for the GUI.
  */
 public class OthelloGame {
     public static final int GAME_BOARD_SIZE = 8;
 
     private BoardSpace[][] board;
+    private long blackDiscs;
+    private long whiteDiscs;
     private final Player playerOne;
     private final Player playerTwo;
 
@@ -31,6 +34,23 @@ public class OthelloGame {
         return  playerTwo;
     }
 
+    /**
+     * @param color the color to get discs for
+     * @return the bitboard of discs of the given color
+     */
+    public long getDiscs(BoardSpace.SpaceType color) {
+        return color == BoardSpace.SpaceType.BLACK ? blackDiscs : whiteDiscs;
+    }
+
+    /**
+     * @param player the player to move
+     * @param opponent the opposing player
+     * @return an immutable snapshot of the current position with player to move
+     */
+    public GameState getState(Player player, Player opponent) {
+        return new GameState(blackDiscs, whiteDiscs, player, opponent);
+    }
+
     /**
      * Returns the available moves for a player.
      * Used by the GUI to get available moves each turn.
@@ -38,7 +58,11 @@ public class OthelloGame {
      * @return the map of available moves,that maps destination to list of origins
      */
     public Map<BoardSpace, List<BoardSpace>> getAvailableMoves(Player player) {
-        return player.getAvailableMoves(board);
+        BoardSpace.SpaceType color = player.getColor();
+        BoardSpace.SpaceType other = color == BoardSpace.SpaceType.BLACK
+                ? BoardSpace.SpaceType.WHITE
+                : BoardSpace.SpaceType.BLACK;
+        return Player.toMoveMap(board, getDiscs(color), getDiscs(other));
     }
 
     /**
@@ -48,20 +72,35 @@ public class OthelloGame {
         board = new BoardSpace[GAME_BOARD_SIZE][GAME_BOARD_SIZE];
         for (int i = 0; i < GAME_BOARD_SIZE; i++) {
             for (int j = 0; j < GAME_BOARD_SIZE; j++) {
-                board[i][j] = new BoardSpace(i, j, BoardSpace.SpaceType.EMPTY);
+                board[i][j] = BoardSpace.of(i, j, BoardSpace.SpaceType.EMPTY);
             }
         }
+        blackDiscs = 0;
+        whiteDiscs = 0;
         //p1 is black
-        board[4][3].setType(BoardSpace.SpaceType.BLACK);
-        playerOne.getPlayerOwnedSpaces().add(board[4][3]);
-        board[3][4].setType(BoardSpace.SpaceType.BLACK);
-        playerOne.getPlayerOwnedSpaces().add(board[3][4]);
+        setDisc(4, 3, BoardSpace.SpaceType.BLACK);
+        playerOne.claimSpace(4, 3);
+        setDisc(3, 4, BoardSpace.SpaceType.BLACK);
+        playerOne.claimSpace(3, 4);
 
         //p2 is while
-        board[3][3].setType(BoardSpace.SpaceType.WHITE);
-        playerTwo.getPlayerOwnedSpaces().add(board[3][3]);
-        board[4][4].setType(BoardSpace.SpaceType.WHITE);
-        playerTwo.getPlayerOwnedSpaces().add(board[4][4]);
+        setDisc(3, 3, BoardSpace.SpaceType.WHITE);
+        playerTwo.claimSpace(3, 3);
+        setDisc(4, 4, BoardSpace.SpaceType.WHITE);
+        playerTwo.claimSpace(4, 4);
+    }
+
+    // keeps the bitboards and the board view in step with a disc placed or flipped at (x, y)
+    private void setDisc(int x, int y, BoardSpace.SpaceType color) {
+        board[x][y] = BoardSpace.of(x, y, color);
+        long bit = BitBoard.bit(x, y);
+        if (color == BoardSpace.SpaceType.BLACK) {
+            blackDiscs |= bit;
+            whiteDiscs &= ~bit;
+        } else {
+            whiteDiscs |= bit;
+            blackDiscs &= ~bit;
+        }
     }
 
     // useful for less repetitive bounds checking booleans
@@ -84,17 +123,13 @@ public class OthelloGame {
      * @param y the y-coordinate of the space to claim
      */
     public void takeSpace(Player actingPlayer, Player opponent, int x, int y) {
-        BoardSpace space = board[x][y];
-        if (!actingPlayer.getPlayerOwnedSpaces().contains(board[x][y])) {
+        if (!actingPlayer.owns(x, y)) {
             // update board state
             // take from opponent, give to player
-            opponent.getPlayerOwnedSpaces().remove(space);
+            opponent.releaseSpace(x, y);
+            actingPlayer.claimSpace(x, y);
 
-            if (!actingPlayer.getPlayerOwnedSpaces().contains(space)) {
-                actingPlayer.getPlayerOwnedSpaces().add(board[x][y]);
-            }
-
-            space.setType(actingPlayer.getColor());
+            setDisc(x, y, actingPlayer.getColor());
         }
     }
 
@@ -109,38 +144,18 @@ public class OthelloGame {
      * @param selectedDestination the specific destination that a HUMAN player selected
      */
     public void takeSpaces(Player actingPlayer, Player opponent, Map<BoardSpace, List<BoardSpace>> availableMoves, BoardSpace selectedDestination) {
-        // cardinal directions
-        int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dy = {-1,  0,  1,-1, 1,-1, 0, 1};
-
-        List<BoardSpace> origins = availableMoves.get(selectedDestination);
-
-        // check which direction the origin is coming from
-        for (BoardSpace origin : origins) {
-            int xdist = origin.getX() - selectedDestination.getX();
-            int ydist = origin.getY() - selectedDestination.getY();
-
-
-            for (int direction = 0; direction < 8; direction++) {
-                // look for direction with the same cardinality as the difference between dest and origin
-                if (dx[direction] == Integer.signum(xdist) && dy[direction] == Integer.signum(ydist)) {
-                    int i = selectedDestination.getX();
-                    int j = selectedDestination.getY();
-
-                    // fill spaces once found
-                    while ((i != origin.getX() || j != origin.getY())) {
-                        if (inBounds(i,j)) {
-                            takeSpace(actingPlayer, opponent, i, j);
-                        }
-                       if (i != origin.getX()) {
-                           i += dx[direction];
-                       }
-                       if (j != origin.getY()) {
-                           j += dy[direction];
-                       }
-                    }
-                }
-            }
+        if (!availableMoves.containsKey(selectedDestination)) {
+            return;
+        }
+        int square = BitBoard.square(selectedDestination.getX(), selectedDestination.getY());
+        long flipped = BitBoard.flips(getDiscs(actingPlayer.getColor()), getDiscs(opponent.getColor()), square);
+
+        // claim the destination, then every disc the bitboard flip computation found
+        takeSpace(actingPlayer, opponent, selectedDestination.getX(), selectedDestination.getY());
+        while (flipped != 0) {
+            int flip = Long.numberOfTrailingZeros(flipped);
+            flipped &= flipped - 1;
+            takeSpace(actingPlayer, opponent, BitBoard.squareX(flip), BitBoard.squareY(flip));
         }
     }
 
@@ -5,13 +5,92 @@ import java.util.*;
 /**
  * Abstract Player class for representing a player within the game.
  * All types of Players have a color and a set of owned spaces on the game board.
+ * Owned spaces are tracked as a bitboard with a cached disc count, so claiming a space and reading the score are O(1).
  */
 public abstract class Player {
-    private final List<BoardSpace> playerOwnedSpaces = new ArrayList<>();
+    private long ownedSquares;
+    private int ownedCount;
+
+    // read-only view for callers that still walk owned spaces as a list
+    private final List<BoardSpace> playerOwnedSpaces = new AbstractList<>() {
+        @Override
+        public BoardSpace get(int index) {
+            if (index < 0 || index >= ownedCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ownedCount);
+            }
+            long squares = ownedSquares;
+            for (int i = 0; i < index; i++) {
+                squares &= squares - 1;
+            }
+            int square = Long.numberOfTrailingZeros(squares);
+            return BoardSpace.of(square, color);
+        }
+
+        @Override
+        public int size() {
+            return ownedCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof BoardSpace space && owns(space.getX(), space.getY());
+        }
+    };
+
+    /**
+     * @return a read-only list view of the spaces this player owns
+     */
     public List<BoardSpace> getPlayerOwnedSpaces() {
         return playerOwnedSpaces;
     }
 
+    /**
+     * @return the bitboard of squares this player owns
+     */
+    public long getOwnedSquares() {
+        return ownedSquares;
+    }
+
+    /**
+     * @return the number of discs this player owns
+     */
+    public int getOwnedCount() {
+        return ownedCount;
+    }
+
+    /**
+     * @return whether this player owns the space at (x, y)
+     */
+    public boolean owns(int x, int y) {
+        return (ownedSquares & BitBoard.bit(x, y)) != 0;
+    }
+
+    /**
+     * Marks the space at (x, y) as owned by this player.
+     * @param x the x-coordinate of the space
+     * @param y the y-coordinate of the space
+     */
+    public void claimSpace(int x, int y) {
+        long bit = BitBoard.bit(x, y);
+        if ((ownedSquares & bit) == 0) {
+            ownedSquares |= bit;
+            ownedCount++;
+        }
+    }
+
+    /**
+     * Marks the space at (x, y) as no longer owned by this player.
+     * @param x the x-coordinate of the space
+     * @param y the y-coordinate of the space
+     */
+    public void releaseSpace(int x, int y) {
+        long bit = BitBoard.bit(x, y);
+        if ((ownedSquares & bit) != 0) {
+            ownedSquares &= ~bit;
+            ownedCount--;
+        }
+    }
+
     private BoardSpace.SpaceType color;
     public void setColor(BoardSpace.SpaceType color) {
         this.color = color;
@@ -31,52 +110,38 @@ public abstract class Player {
      */
 
     public Map<BoardSpace, List<BoardSpace>> getAvailableMoves(BoardSpace[][] board) {
-        // init, get the player color, uses ternary (?) to define the other player
-        Map<BoardSpace, List<BoardSpace>> moves = new HashMap<>();
+        // read the board once into bitboards, then generate moves with shifts instead of walking rays
         BoardSpace.SpaceType myPlayer = getColor();
         BoardSpace.SpaceType opponent = (myPlayer == BoardSpace.SpaceType.BLACK)
                 ? BoardSpace.SpaceType.WHITE
                 : BoardSpace.SpaceType.BLACK;
-        int rows = board.length;
-        int cols = board[0].length;
-        // sequence of xy coordinate dimensions to travel along
-        int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dy = {-1,  0,  1,-1, 1,-1, 0, 1};
-        // go row by row
-        for (int x = 0; x < rows; x++) {
-            for (int y = 0; y < cols; y++) {
-                // skip non-empty spaces, not valid moves
-                if (board[x][y].getType() != BoardSpace.SpaceType.EMPTY) {
-                    continue;
-                }
-
-                List<BoardSpace> origins = new ArrayList<>();
-                // check all possible spaces for opponent's color
-                for (int direction = 0; direction < 8; direction++) {
-                    int i = x + dx[direction];
-                    int j = y + dy[direction];
-                    boolean hasOpponent = false;
-                    // if we find an opponents color, keep traversing along that dimension dx,dy
-                    while (OthelloGame.inBounds(i,j)
-                            && board[i][j].getType() == opponent) {
-                        hasOpponent = true;
-                        i += dx[direction];
-                        j += dy[direction];
-                    }
-                    // if we encountered some amount of opponent pieces and then one of our own
-                    if (hasOpponent
-                            && OthelloGame.inBounds(i,j)
-                            && board[i][j].getType() == myPlayer) {
-                        // add this player piece as an origin for a move
-                        origins.add(board[i][j]);
-                    }
-                }
-
-                // if we found any possible origins for the move, it is valid
-                if (!origins.isEmpty()) {
-                    moves.put(board[x][y], origins);
-                }
+        long playerDiscs = BitBoard.fromBoard(board, myPlayer);
+        long opponentDiscs = BitBoard.fromBoard(board, opponent);
+        return toMoveMap(board, playerDiscs, opponentDiscs);
+    }
+
+    /**
+     * Builds the destination to origins map used by the GUI from a bitboard position.
+     * @param board the board view whose spaces are placed in the map
+     * @param playerDiscs discs of the player to move
+     * @param opponentDiscs discs of the opposing player
+     * @return a map with a destination BoardSpace mapped to a List of origin BoardSpaces.
+     */
+    static Map<BoardSpace, List<BoardSpace>> toMoveMap(BoardSpace[][] board, long playerDiscs, long opponentDiscs) {
+        Map<BoardSpace, List<BoardSpace>> moves = new HashMap<>();
+        long legal = BitBoard.legalMoves(playerDiscs, opponentDiscs);
+        while (legal != 0) {
+            int square = Long.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+
+            List<BoardSpace> origins = new ArrayList<>();
+            long anchors = BitBoard.origins(playerDiscs, opponentDiscs, square);
+            while (anchors != 0) {
+                int origin = Long.numberOfTrailingZeros(anchors);
+                anchors &= anchors - 1;
+                origins.add(board[BitBoard.squareX(origin)][BitBoard.squareY(origin)]);
             }
+            moves.put(board[BitBoard.squareX(square)][BitBoard.squareY(square)], origins);
         }
         return moves;
     }
@@ -0,0 +1,350 @@
+package othello.gamelogic;
+
+import graph.search.MoveList;
+import graph.search.SearchPosition;
+
+import java.util.SplittableRandom;
+
+/**
+ * A mutable Othello position for search algorithms.
+ * Moves are applied in place with {@link #makeMove(int)} and reverted with {@link #undoMove()},
+ * so walking a search tree never copies the board.
+ * Each undo record is just the move square and the mask of discs it flipped.
+ * A {@link Zobrist} key of the discs and side to move is kept up to date on every move.
+ */
+public class Position implements SearchPosition {
+    /** Move value used when the side to move has no legal move and must pass. */
+    public static final int PASS = BitBoard.SQUARES;
+
+    /** Enough room for every legal move of any position. */
+    public static final int MAX_MOVES = BitBoard.SQUARES;
+
+    /** Weight of each disc of the final margin, large enough that any win outranks a heuristic score. */
+    public static final double TERMINAL_WEIGHT = 10_000;
+
+    // 60 placements plus passes can never exceed this many plies
+    private static final int MAX_PLIES = 128;
+
+    private long player;
+    private long opponent;
+    private boolean blackToMove;
+    private long key;
+
+    private final int[] moveStack = new int[MAX_PLIES];
+    private final long[] flipStack = new long[MAX_PLIES];
+    private int ply;
+
+    /**
+     * Creates the standard starting position with black to move.
+     */
+    public Position() {
+        this(BitBoard.START_BLACK, BitBoard.START_WHITE, true);
+    }
+
+    /**
+     * Creates a position from bitboards
+     * @param blackDiscs The mask of black discs
+     * @param whiteDiscs The mask of white discs
+     * @param blackToMove Whether black is the side to move
+     */
+    public Position(long blackDiscs, long whiteDiscs, boolean blackToMove) {
+        this.blackToMove = blackToMove;
+        this.player = blackToMove ? blackDiscs : whiteDiscs;
+        this.opponent = blackToMove ? whiteDiscs : blackDiscs;
+        this.key = Zobrist.hash(blackDiscs, whiteDiscs, blackToMove);
+    }
+
+    /**
+     * Creates a search position from an immutable game state, with its current player to move
+     * @param state The state to copy
+     */
+    public Position(GameState state) {
+        this(state.getDiscs(BoardSpace.SpaceType.BLACK), state.getDiscs(BoardSpace.SpaceType.WHITE),
+                state.getCurrentPlayer().getColor() == BoardSpace.SpaceType.BLACK);
+    }
+
+    /**
+     * Copies the discs and side to move of another position; the undo history is not copied.
+     * @param other The position to copy
+     */
+    public Position(Position other) {
+        this.player = other.player;
+        this.opponent = other.opponent;
+        this.blackToMove = other.blackToMove;
+        this.key = other.key;
+    }
+
+    /**
+     * @return A copy of the discs and side to move, without the undo history
+     */
+    @Override
+    public Position copy() {
+        return new Position(this);
+    }
+
+    /**
+     * @return The discs of the side to move
+     */
+    public long getPlayerDiscs() {
+        return player;
+    }
+
+    /**
+     * @return The discs of the side not to move
+     */
+    public long getOpponentDiscs() {
+        return opponent;
+    }
+
+    /**
+     * @param color The color to get discs for
+     * @return The bitboard of discs of the given color
+     */
+    public long getDiscs(BoardSpace.SpaceType color) {
+        return (color == BoardSpace.SpaceType.BLACK) == blackToMove ? player : opponent;
+    }
+
+    /**
+     * @return Whether black is the side to move
+     */
+    public boolean isBlackToMove() {
+        return blackToMove;
+    }
+
+    /**
+     * @return The Zobrist key of the discs and side to move
+     */
+    @Override
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return A key shared by all 8 symmetric variants of this position, see {@link Symmetry}
+     */
+    public long getCanonicalKey() {
+        return Symmetry.canonicalKey(getDiscs(BoardSpace.SpaceType.BLACK),
+                getDiscs(BoardSpace.SpaceType.WHITE), blackToMove);
+    }
+
+    /**
+     * @return The color of the side to move
+     */
+    public BoardSpace.SpaceType getSideToMove() {
+        return blackToMove ? BoardSpace.SpaceType.BLACK : BoardSpace.SpaceType.WHITE;
+    }
+
+    /**
+     * @return The number of moves made since this position was created, passes included
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @return The number of empty squares
+     */
+    public int getEmptyCount() {
+        return BitBoard.SQUARES - Long.bitCount(player | opponent);
+    }
+
+    /**
+     * @return The mask of legal destinations for the side to move
+     */
+    public long getLegalMoves() {
+        return BitBoard.legalMoves(player, opponent);
+    }
+
+    /**
+     * Fills a move list with the legal moves of the side to move, as square indices.
+     * When the side to move has no move but the opponent does, the list holds a single {@link #PASS}.
+     * @param moves The list to fill, with room for {@link #MAX_MOVES} moves
+     * @return The number of moves, 0 only when the game is over
+     */
+    @Override
+    public int generateMoves(MoveList moves) {
+        moves.clear();
+        long legal = BitBoard.legalMoves(player, opponent);
+        if (legal == 0) {
+            if (BitBoard.legalMoves(opponent, player) != 0) {
+                moves.add(PASS);
+            }
+            return moves.size();
+        }
+        for (; legal != 0; legal &= legal - 1) {
+            moves.add(Long.numberOfTrailingZeros(legal));
+        }
+        return moves.size();
+    }
+
+    /**
+     * Computes the final disc margin for the side to move, with empty squares going to the winner.
+     * @return The margin, positive when the side to move is ahead
+     */
+    public int getFinalScore() {
+        int playerCount = Long.bitCount(player);
+        int opponentCount = Long.bitCount(opponent);
+        int empties = BitBoard.SQUARES - playerCount - opponentCount;
+        if (playerCount > opponentCount) {
+            return playerCount - opponentCount + empties;
+        }
+        if (playerCount < opponentCount) {
+            return playerCount - opponentCount - empties;
+        }
+        return 0;
+    }
+
+    /**
+     * Plays uniformly random legal moves, passing when forced, until the game ends.
+     * The game is played on local bitboards, so the position itself is unchanged and nothing is allocated.
+     * @param random The source of randomness
+     * @return The final disc margin for the side to move in this position, as {@link #getFinalScore()} counts it
+     */
+    public int playRandomGame(SplittableRandom random) {
+        long mover = player;
+        long other = opponent;
+        boolean flipped = false;
+        boolean passed = false;
+        while (true) {
+            long legal = BitBoard.legalMoves(mover, other);
+            if (legal == 0) {
+                if (passed) {
+                    break;
+                }
+                passed = true;
+            } else {
+                passed = false;
+                // drop a random number of lower moves, the lowest one left is the choice
+                for (int skip = random.nextInt(Long.bitCount(legal)); skip > 0; skip--) {
+                    legal &= legal - 1;
+                }
+                int square = Long.numberOfTrailingZeros(legal);
+                long flips = BitBoard.flips(mover, other, square);
+                mover |= flips | (1L << square);
+                other &= ~flips;
+            }
+            long swap = mover;
+            mover = other;
+            other = swap;
+            flipped = !flipped;
+        }
+        int moverCount = Long.bitCount(mover);
+        int otherCount = Long.bitCount(other);
+        int empties = BitBoard.SQUARES - moverCount - otherCount;
+        int margin = moverCount > otherCount ? moverCount - otherCount + empties
+                : moverCount < otherCount ? moverCount - otherCount - empties : 0;
+        return flipped ? -margin : margin;
+    }
+
+    /**
+     * @return The final disc margin scaled by {@link #TERMINAL_WEIGHT}
+     */
+    @Override
+    public double terminalScore() {
+        return getFinalScore() * TERMINAL_WEIGHT;
+    }
+
+    /**
+     * @return Whether neither side has a legal move
+     */
+    public boolean isGameOver() {
+        return BitBoard.legalMoves(player, opponent) == 0 && BitBoard.legalMoves(opponent, player) == 0;
+    }
+
+    /**
+     * Plays a move for the side to move. The move is assumed to be legal,
+     * or {@link #PASS} when the side to move has no legal move.
+     * @param move The destination square, or PASS
+     */
+    @Override
+    public void makeMove(int move) {
+        long flipped = 0;
+        if (move != PASS) {
+            flipped = BitBoard.flips(player, opponent, move);
+            player |= flipped | (1L << move);
+            opponent &= ~flipped;
+        }
+        moveStack[ply] = move;
+        flipStack[ply] = flipped;
+        ply++;
+        key ^= Zobrist.moveDelta(blackToMove, move, flipped);
+
+        long swap = player;
+        player = opponent;
+        opponent = swap;
+        blackToMove = !blackToMove;
+    }
+
+    /**
+     * Reverts the last move made with {@link #makeMove(int)}.
+     * @throws IllegalStateException if there is no move to undo
+     */
+    @Override
+    public void undoMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        ply--;
+        int move = moveStack[ply];
+        long flipped = flipStack[ply];
+
+        long swap = player;
+        player = opponent;
+        opponent = swap;
+        blackToMove = !blackToMove;
+        key ^= Zobrist.moveDelta(blackToMove, move, flipped);
+
+        if (move != PASS) {
+            player &= ~(flipped | (1L << move));
+            opponent |= flipped;
+        }
+    }
+
+    /**
+     * @return The last move made, or -1 if there is none
+     */
+    public int getLastMove() {
+        return ply == 0 ? -1 : moveStack[ply - 1];
+    }
+
+    /**
+     * Parses a position from 64 characters in square order ('X' black, 'O' white, '-' empty),
+     * followed by whitespace and the side to move ('X' or 'O'). Other whitespace is ignored.
+     * @param text The text to parse, for example the output of {@link #toString()}
+     * @return The parsed position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static Position parse(String text) {
+        String compact = text.replaceAll("\\s+", "");
+        if (compact.length() != BitBoard.SQUARES + 1) {
+            throw new IllegalArgumentException("Expected 64 squares and a side to move: " + text);
+        }
+        long black = 0;
+        long white = 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            switch (Character.toUpperCase(compact.charAt(square))) {
+                case 'X' -> black |= 1L << square;
+                case 'O' -> white |= 1L << square;
+                case '-', '.' -> { }
+                default -> throw new IllegalArgumentException("Unknown square '" + compact.charAt(square) + "'");
+            }
+        }
+        char side = Character.toUpperCase(compact.charAt(BitBoard.SQUARES));
+        if (side != 'X' && side != 'O') {
+            throw new IllegalArgumentException("Unknown side to move '" + side + "'");
+        }
+        return new Position(black, white, side == 'X');
+    }
+
+    @Override
+    public String toString() {
+        long black = getDiscs(BoardSpace.SpaceType.BLACK);
+        long white = getDiscs(BoardSpace.SpaceType.WHITE);
+        StringBuilder text = new StringBuilder(BitBoard.SQUARES + 2);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            long bit = 1L << square;
+            text.append((black & bit) != 0 ? 'X' : (white & bit) != 0 ? 'O' : '-');
+        }
+        return text.append(' ').append(blackToMove ? 'X' : 'O').toString();
+    }
+}
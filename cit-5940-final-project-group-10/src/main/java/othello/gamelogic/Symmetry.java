@@ -0,0 +1,157 @@
+package othello.gamelogic;
+
+/**
+ * The 8 symmetries of the Othello board (rotations and reflections) on bitboards.
+ * Transform {@code t} in 0..7 is applied as: transpose if bit 2 is set, then flip x if bit 1 is set,
+ * then flip y if bit 0 is set. Transform 0 is the identity.
+ * The canonical orientation of a position is the transform with the smallest (black, white) masks,
+ * so all 8 equivalent positions share one canonical form and one canonical key.
+ */
+public final class Symmetry {
+    public static final int IDENTITY = 0;
+    public static final int TRANSFORMS = 8;
+
+    private static final int[] INVERSE = new int[TRANSFORMS];
+
+    static {
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int u = 0; u < TRANSFORMS; u++) {
+                boolean inverse = true;
+                for (int square = 0; square < BitBoard.SQUARES && inverse; square++) {
+                    inverse = transformSquare(transformSquare(square, t), u) == square;
+                }
+                if (inverse) {
+                    INVERSE[t] = u;
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * Flips the board along x, so board[x][y] moves to board[7 - x][y].
+     */
+    public static long flipX(long discs) {
+        return Long.reverseBytes(discs);
+    }
+
+    /**
+     * Flips the board along y, so board[x][y] moves to board[x][7 - y].
+     */
+    public static long flipY(long discs) {
+        discs = ((discs >>> 1) & 0x5555555555555555L) | ((discs & 0x5555555555555555L) << 1);
+        discs = ((discs >>> 2) & 0x3333333333333333L) | ((discs & 0x3333333333333333L) << 2);
+        discs = ((discs >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((discs & 0x0f0f0f0f0f0f0f0fL) << 4);
+        return discs;
+    }
+
+    /**
+     * Transposes the board, so board[x][y] moves to board[y][x].
+     */
+    public static long transpose(long discs) {
+        long t;
+        t = 0x0f0f0f0f00000000L & (discs ^ (discs << 28));
+        discs ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (discs ^ (discs << 14));
+        discs ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (discs ^ (discs << 7));
+        discs ^= t ^ (t >>> 7);
+        return discs;
+    }
+
+    /**
+     * Applies a symmetry to a disc mask.
+     * @param discs The mask to transform
+     * @param transform The transform index, 0..7
+     * @return The transformed mask
+     */
+    public static long transform(long discs, int transform) {
+        if ((transform & 4) != 0) {
+            discs = transpose(discs);
+        }
+        if ((transform & 2) != 0) {
+            discs = flipX(discs);
+        }
+        if ((transform & 1) != 0) {
+            discs = flipY(discs);
+        }
+        return discs;
+    }
+
+    /**
+     * Applies a symmetry to a single square, for example to map a move.
+     * {@link Position#PASS} is left unchanged.
+     * @param square The square index
+     * @param transform The transform index, 0..7
+     * @return The transformed square index
+     */
+    public static int transformSquare(int square, int transform) {
+        if (square < 0 || square >= BitBoard.SQUARES) {
+            return square;
+        }
+        int x = BitBoard.squareX(square);
+        int y = BitBoard.squareY(square);
+        if ((transform & 4) != 0) {
+            int swap = x;
+            x = y;
+            y = swap;
+        }
+        if ((transform & 2) != 0) {
+            x = OthelloGame.GAME_BOARD_SIZE - 1 - x;
+        }
+        if ((transform & 1) != 0) {
+            y = OthelloGame.GAME_BOARD_SIZE - 1 - y;
+        }
+        return BitBoard.square(x, y);
+    }
+
+    /**
+     * @param transform The transform index, 0..7
+     * @return The transform that undoes it
+     */
+    public static int inverse(int transform) {
+        return INVERSE[transform];
+    }
+
+    /**
+     * Finds the transform that brings a position to its canonical orientation.
+     * Moves found in the canonical orientation map back with
+     * {@code transformSquare(move, inverse(transform))}.
+     * @param blackDiscs The mask of black discs
+     * @param whiteDiscs The mask of white discs
+     * @return The transform index, 0..7
+     */
+    public static int canonicalTransform(long blackDiscs, long whiteDiscs) {
+        int best = IDENTITY;
+        long bestBlack = blackDiscs;
+        long bestWhite = whiteDiscs;
+        for (int t = 1; t < TRANSFORMS; t++) {
+            long black = transform(blackDiscs, t);
+            int order = Long.compareUnsigned(black, bestBlack);
+            if (order > 0) {
+                continue;
+            }
+            long white = transform(whiteDiscs, t);
+            if (order < 0 || Long.compareUnsigned(white, bestWhite) < 0) {
+                best = t;
+                bestBlack = black;
+                bestWhite = white;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Computes a Zobrist key that is identical for all 8 symmetric variants of a position.
+     * @param blackDiscs The mask of black discs
+     * @param whiteDiscs The mask of white discs
+     * @param blackToMove Whether black is the side to move
+     * @return The Zobrist key of the canonical orientation
+     */
+    public static long canonicalKey(long blackDiscs, long whiteDiscs, boolean blackToMove) {
+        int t = canonicalTransform(blackDiscs, whiteDiscs);
+        return Zobrist.hash(transform(blackDiscs, t), transform(whiteDiscs, t), blackToMove);
+    }
+}
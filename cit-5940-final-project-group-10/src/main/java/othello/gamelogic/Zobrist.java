@@ -0,0 +1,78 @@
+package othello.gamelogic;
+
+import java.util.SplittableRandom;
+
+/**
+ * 64-bit Zobrist keys for Othello positions.
+ * A key is the XOR of one random number per (color, square) holding a disc,
+ * plus a side-to-move number when white is to move.
+ * The tables come from a fixed seed so keys are stable across runs and can index stored data.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5940_0710_2025L;
+
+    private static final long[] BLACK = new long[BitBoard.SQUARES];
+    private static final long[] WHITE = new long[BitBoard.SQUARES];
+    // BLACK ^ WHITE per square, the key change of flipping a disc on that square
+    private static final long[] FLIP = new long[BitBoard.SQUARES];
+
+    /** Key component XORed in when white is to move. */
+    public static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            BLACK[square] = random.nextLong();
+            WHITE[square] = random.nextLong();
+            FLIP[square] = BLACK[square] ^ WHITE[square];
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Computes a key from scratch.
+     * @param blackDiscs The mask of black discs
+     * @param whiteDiscs The mask of white discs
+     * @param blackToMove Whether black is the side to move
+     * @return The Zobrist key of the position
+     */
+    public static long hash(long blackDiscs, long whiteDiscs, boolean blackToMove) {
+        long key = blackToMove ? 0 : WHITE_TO_MOVE;
+        for (long discs = blackDiscs; discs != 0; discs &= discs - 1) {
+            key ^= BLACK[Long.numberOfTrailingZeros(discs)];
+        }
+        for (long discs = whiteDiscs; discs != 0; discs &= discs - 1) {
+            key ^= WHITE[Long.numberOfTrailingZeros(discs)];
+        }
+        return key;
+    }
+
+    /**
+     * @return The key component of a disc of the given color on a square
+     */
+    public static long disc(boolean black, int square) {
+        return black ? BLACK[square] : WHITE[square];
+    }
+
+    /**
+     * Computes the key change of a move: the placed disc, every flipped disc and the side to move.
+     * XORing the result into a key both applies and reverts the move.
+     * @param blackMoving Whether black is making the move
+     * @param square The destination square, or {@link Position#PASS}
+     * @param flipped The mask of flipped discs
+     * @return The key delta
+     */
+    public static long moveDelta(boolean blackMoving, int square, long flipped) {
+        long delta = WHITE_TO_MOVE;
+        if (square != Position.PASS) {
+            delta ^= disc(blackMoving, square);
+            for (; flipped != 0; flipped &= flipped - 1) {
+                delta ^= FLIP[Long.numberOfTrailingZeros(flipped)];
+            }
+        }
+        return delta;
+    }
+}
@@ -15,4 +15,13 @@ public interface BoardEvaluator {
      * @return A score, with higher values being better for the player
      */
     double evaluate(BoardSpace[][] board, Player player, Player opponent);
+
+    /**
+     * Evaluates a bitboard position from a player's perspective.
+     * @param playerDiscs The discs of the player to evaluate for
+     * @param opponentDiscs The discs of the opposing player
+     * @return A score, with higher values being better for the player. Searches keep scores that fit in a float
+     * exactly in their transposition tables and round others to weaker bounds, so whole-number scores search best.
+     */
+    double evaluate(long playerDiscs, long opponentDiscs);
 }
\ No newline at end of file
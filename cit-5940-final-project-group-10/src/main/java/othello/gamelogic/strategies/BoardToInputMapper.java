@@ -1,5 +1,6 @@
 package othello.gamelogic.strategies;
 
+import othello.gamelogic.BitBoard;
 import othello.gamelogic.BoardSpace;
 import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
@@ -60,6 +61,27 @@ public class BoardToInputMapper {
         return input;
     }
     
+    /**
+     * Maps a bitboard position to neural network input array, using the same 3 channel layout.
+     * @param playerDiscs The discs of the current player
+     * @param opponentDiscs The discs of the opponent
+     * @return An array of input values for the neural network
+     */
+    public static double[] mapToInput(long playerDiscs, long opponentDiscs) {
+        int squares = BitBoard.SQUARES;
+        double[] input = new double[squares * 3];
+        long empty = ~(playerDiscs | opponentDiscs);
+        
+        for (int square = 0; square < squares; square++) {
+            long bit = 1L << square;
+            input[square] = (playerDiscs & bit) != 0 ? 1.0 : 0.0;
+            input[squares + square] = (opponentDiscs & bit) != 0 ? 1.0 : 0.0;
+            input[2 * squares + square] = (empty & bit) != 0 ? 1.0 : 0.0;
+        }
+        
+        return input;
+    }
+    
     /**
      * Maps neural network output to a board space.
      * @param output The neural network output
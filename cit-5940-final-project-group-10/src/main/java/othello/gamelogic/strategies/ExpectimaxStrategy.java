@@ -3,8 +3,6 @@ package othello.gamelogic.strategies;
 import graph.search.GameTreeNode;
 import graph.search.Expectimax;
 import othello.gamelogic.*;
-import java.util.Map;
-import java.util.List;
 
 /**
  * Implements a strategy using the Expectimax algorithm.
@@ -20,27 +18,28 @@ public class ExpectimaxStrategy implements Strategy {
     
     @Override
     public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
+        // Create game state representation
+        GameState initialState = game.getState(currentPlayer, opponent);
+        
         // Get available moves
-        Map<BoardSpace, List<BoardSpace>> availableMoves = game.getAvailableMoves(currentPlayer);
+        long availableMoves = initialState.getLegalMoves();
         
-        if (availableMoves.isEmpty()) {
+        if (availableMoves == 0) {
             return null; // No valid moves
         }
         
-        // Create game state representation
-        GameState initialState = new GameState(game.getBoard(), currentPlayer, opponent);
-        
         // Create root node for the search tree
         GameTreeNode<GameState> rootNode = new GameTreeNode<>(initialState);
         
         // Create child nodes for each available move
-        for (BoardSpace move : availableMoves.keySet()) {
-            GameState childState = initialState.applyMove(move);
+        for (long moves = availableMoves; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            GameState childState = initialState.applyMove(square);
             GameTreeNode<GameState> childNode = new GameTreeNode<>(childState);
             rootNode.addChild(childNode);
             
             // Store the move in the node for retrieval later
-            childNode.setData(new GameStateWithMove(childState, move));
+            childNode.setData(new GameStateWithMove(childState, square));
         }
         
         // Use graph package's Expectimax implementation
@@ -60,10 +59,10 @@ public class ExpectimaxStrategy implements Strategy {
                     evalOpponent = currentPlayer;
                 }
                 
+                GameState gameState = (GameState) state;
                 return evaluator.evaluate(
-                    ((GameState)state).getBoard(), 
-                    evalPlayer,
-                    evalOpponent);
+                    gameState.getDiscs(evalPlayer.getColor()),
+                    gameState.getDiscs(evalOpponent.getColor()));
             }
         );
         
@@ -75,14 +74,15 @@ public class ExpectimaxStrategy implements Strategy {
      * Helper class to store a move with a game state
      */
     private static class GameStateWithMove extends GameState {
-        private final BoardSpace move;
+        private final int move;
         
-        public GameStateWithMove(GameState state, BoardSpace move) {
-            super(state.getBoard(), state.getCurrentPlayer(), state.getOpponent());
+        public GameStateWithMove(GameState state, int move) {
+            super(state.getDiscs(BoardSpace.SpaceType.BLACK), state.getDiscs(BoardSpace.SpaceType.WHITE),
+                    state.getCurrentPlayer(), state.getOpponent());
             this.move = move;
         }
         
-        public BoardSpace getMove() {
+        public int getMove() {
             return move;
         }
     }
@@ -111,7 +111,8 @@ public class ExpectimaxStrategy implements Strategy {
         
         // Extract the move from the best child
         if (bestChild.getData() instanceof GameStateWithMove) {
-            return ((GameStateWithMove) bestChild.getData()).getMove();
+            int square = ((GameStateWithMove) bestChild.getData()).getMove();
+            return BoardSpace.of(square, BoardSpace.SpaceType.EMPTY);
         }
         
         return null;
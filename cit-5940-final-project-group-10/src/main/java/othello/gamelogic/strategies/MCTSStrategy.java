@@ -1,176 +1,299 @@
 package othello.gamelogic.strategies;
 
-import graph.search.GameTreeNode;
+import graph.search.MctsNodeArena;
 import graph.search.MonteCarloTreeSearch;
+import graph.search.ParallelMonteCarloTreeSearch;
+import graph.search.RootParallelMonteCarloTreeSearch;
 import othello.Constants;
 import othello.gamelogic.*;
-import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Random;
+
+import java.util.SplittableRandom;
 
 /**
  * Implements a strategy using Monte Carlo Tree Search.
+ * The tree is searched on a single {@link Position} in place, and each simulation ends with
+ * a random game played on bitboards, and the tree's nodes live in a preallocated {@link MctsNodeArena},
+ * so a simulation allocates nothing.
+ * By default the tree is kept between moves: after our move and the opponent's reply, the subtree of the
+ * position reached becomes the new root with its statistics, so the simulations spent on it are not lost.
+ * With more than one thread the simulations run in parallel, either on one shared tree
+ * or on independent trees whose root statistics are merged, see {@link Parallelism}.
  */
 public class MCTSStrategy implements Strategy {
-    private final double explorationParameter;
-    private final int simulationCount;
-    private final Random random = new Random();
-    
+    /** Simulations run per move unless changed. */
+    public static final int DEFAULT_SIMULATIONS = 1000;
+
+    /** The largest node arena the search sizes for itself, in MB, used when the time budget decides instead. */
+    public static final int MAX_ARENA_MB = 64;
+
+    // nodes a simulation adds to the tree, with headroom; a tree grows by about three
+    private static final int NODES_PER_SIMULATION = 4;
+
+    /**
+     * How several threads search together.
+     */
+    public enum Parallelism {
+        /** All threads grow one shared tree, see {@link ParallelMonteCarloTreeSearch}. */
+        TREE,
+        /** Each thread grows its own tree and the root visits are summed, see {@link RootParallelMonteCarloTreeSearch}. */
+        ROOT
+    }
+
+    private final MonteCarloTreeSearch<Position> search;
+    private ParallelMonteCarloTreeSearch<Position> treeParallel;
+    private RootParallelMonteCarloTreeSearch<Position> rootParallel;
+    private Parallelism parallelism = Parallelism.TREE;
+    private int threads = 1;
+    private int simulationCount = DEFAULT_SIMULATIONS;
+    private boolean treeReuse = true;
+    private long timeBudgetNanos;
+    private long timeUsedNanos;
+    private int arenaMegabytes;
+    private boolean seeded;
+    private long seed;
+
     public MCTSStrategy() {
-        this.explorationParameter = Constants.EXPLORATION_PARAM;
-        this.simulationCount = 1000; // Number of simulations to run
+        this.search = createEngine();
+        this.arenaMegabytes = arenaMegabytes(simulationCount);
+        search.setArena(new MctsNodeArena(arenaMegabytes));
     }
-    
-    @Override
-    public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
-        // Get available moves
-        Map<BoardSpace, List<BoardSpace>> availableMoves = game.getAvailableMoves(currentPlayer);
-        
-        if (availableMoves.isEmpty()) {
-            return null; // No valid moves
+
+    /**
+     * Sizes the node arena for a number of simulations per move, with room for the subtree kept from the last move
+     * @param simulations The simulations per move
+     * @return The arena size in MB, at most MAX_ARENA_MB
+     */
+    static int arenaMegabytes(int simulations) {
+        long bytes = 2L * simulations * NODES_PER_SIMULATION * MctsNodeArena.BYTES_PER_NODE;
+        long megabytes = (bytes + (1 << 20) - 1) >> 20;
+        return (int) Math.max(1, Math.min(megabytes, MAX_ARENA_MB));
+    }
+
+    /**
+     * @return The size of the node arena the search uses, in MB, split among the trees when root-parallel
+     */
+    int getArenaMegabytes() {
+        return arenaMegabytes;
+    }
+
+    /**
+     * Creates a single-tree engine with the random playout and the usual exploration parameter
+     * @return The new engine
+     */
+    public static MonteCarloTreeSearch<Position> createEngine() {
+        return new MonteCarloTreeSearch<>(MCTSStrategy::playout, Position.MAX_MOVES, Constants.EXPLORATION_PARAM);
+    }
+
+    /**
+     * Sets the number of search threads. How more than one share the work depends on the parallelism mode.
+     * @param threads The total thread count
+     * @throws IllegalArgumentException if threads is not positive
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
         }
-        
-        // Create game state representation
-        GameState initialState = new GameState(game.getBoard(), currentPlayer, opponent);
-        
-        // Create root node for the search tree
-        GameTreeNode<GameState> rootNode = new GameTreeNode<>(initialState);
-        
-        // Create child nodes for each available move
-        for (BoardSpace move : availableMoves.keySet()) {
-            GameState childState = initialState.applyMove(move);
-            GameTreeNode<GameState> childNode = new GameTreeNode<>(childState);
-            rootNode.addChild(childNode);
-            
-            // Store the move in the node for retrieval later
-            childNode.setData(new GameStateWithMove(childState, move));
+        if (treeParallel != null) {
+            treeParallel.close();
+            treeParallel = null;
         }
-        
-        // Use graph package's MCTS implementation
-        MonteCarloTreeSearch.search(
-            rootNode,
-            simulationCount,
-            explorationParameter,
-            this::simulateRandomGame,  // Game simulation function
-            this::getGameResult        // Result evaluation function
-        );
-        
-        // Find child with the highest visit count
-        return getMostVisitedChildMove(rootNode);
-    }
-    
-    /**
-     * Helper class to store a move with a game state
-     */
-    private static class GameStateWithMove extends GameState {
-        private final BoardSpace move;
-        
-        public GameStateWithMove(GameState state, BoardSpace move) {
-            super(state.getBoard(), state.getCurrentPlayer(), state.getOpponent());
-            this.move = move;
+        if (rootParallel != null) {
+            rootParallel.close();
+            rootParallel = null;
         }
-        
-        public BoardSpace getMove() {
-            return move;
+        this.threads = threads;
+        if (threads > 1 && parallelism == Parallelism.TREE) {
+            treeParallel = new ParallelMonteCarloTreeSearch<>(threads, MCTSStrategy::createEngine, arenaMegabytes);
+        } else if (threads > 1) {
+            // each tree sees only its share of the simulations
+            rootParallel = new RootParallelMonteCarloTreeSearch<>(threads, MCTSStrategy::createEngine,
+                    Math.max(1, arenaMegabytes / threads));
+        }
+        if (seeded) {
+            setSeed(seed);
         }
     }
-    
-    /**
-     * Simulates a random game from the given state
-     */
-    private GameState simulateRandomGame(GameState state) {
-        GameState currentState = state;
-        int moveLimit = 100; // Prevent infinite loops
-        
-        while (!currentState.isGameOver() && moveLimit > 0) {
-            // Get available moves
-            Map<BoardSpace, List<BoardSpace>> availableMoves = 
-                currentState.getCurrentPlayer().getAvailableMoves(currentState.getBoard());
-            
-            if (availableMoves.isEmpty()) {
-                // No moves, swap players and continue
-                currentState = currentState.swapPlayers();
-                continue;
-            }
-            
-            // Choose a random move
-            List<BoardSpace> moves = new ArrayList<>(availableMoves.keySet());
-            if (!moves.isEmpty()) {
-                BoardSpace randomMove = moves.get(random.nextInt(moves.size()));
-                // Apply the move
-                currentState = currentState.applyMove(randomMove);
-            }
-            moveLimit--;
+
+    /**
+     * @return The total number of search threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Selects how several threads search together; it has no effect with one thread
+     * @param parallelism The parallelism mode
+     */
+    public void setParallelism(Parallelism parallelism) {
+        this.parallelism = parallelism;
+        setThreads(threads);
+    }
+
+    /**
+     * @return The parallelism mode
+     */
+    public Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of simulations run per move, and sizes the node arena to fit them
+     * @param simulations The number of simulations
+     * @throws IllegalArgumentException if simulations is not positive
+     */
+    public void setSimulationCount(int simulations) {
+        if (simulations < 1) {
+            throw new IllegalArgumentException("Simulation count must be at least 1");
         }
-        
-        return currentState;
-    }
-    
-    /**
-     * Evaluates the result of a simulation
-     */
-    private double getGameResult(GameState finalState, boolean isMaximizingPlayer) {
-        // Count pieces for both players
-        BoardSpace[][] board = finalState.getBoard();
-        int playerOneCount = 0;
-        int playerTwoCount = 0;
-        
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                if (board[i][j].getType() == BoardSpace.SpaceType.BLACK) {
-                    playerOneCount++;
-                } else if (board[i][j].getType() == BoardSpace.SpaceType.WHITE) {
-                    playerTwoCount++;
-                }
-            }
+        this.simulationCount = simulations;
+        int megabytes = arenaMegabytes(simulations);
+        if (megabytes != arenaMegabytes) {
+            // the tree kept from the last move goes with the old arena
+            arenaMegabytes = megabytes;
+            search.setArena(new MctsNodeArena(megabytes));
+            setThreads(threads);
         }
-        
-        // Determine if maximizing player won
-        boolean playerOneWon = playerOneCount > playerTwoCount;
-        Player currentPlayer = finalState.getCurrentPlayer();
-        Player opponent = finalState.getOpponent();
-        boolean isMaximizingPlayerOne = isMaximizingPlayer && 
-            currentPlayer.getColor() == BoardSpace.SpaceType.BLACK ||
-            !isMaximizingPlayer && opponent.getColor() == BoardSpace.SpaceType.BLACK;
-        
-        boolean maximizingPlayerWon = (isMaximizingPlayerOne && playerOneWon) || 
-            (!isMaximizingPlayerOne && !playerOneWon);
-        
-        if (maximizingPlayerWon) {
-            return 1.0;
-        } else {
-            return 0.0;
+    }
+
+    /**
+     * @return The number of simulations run per move
+     */
+    public int getSimulationCount() {
+        return simulationCount;
+    }
+
+    /**
+     * Enables or disables keeping the tree between moves; the simulation count is then on top of the reused visits
+     * @param enabled Whether to reuse the subtree of the position reached
+     */
+    public void setTreeReuse(boolean enabled) {
+        this.treeReuse = enabled;
+    }
+
+    /**
+     * @return Whether the tree is kept between moves
+     */
+    public boolean isTreeReuse() {
+        return treeReuse;
+    }
+
+    /**
+     * Limits the wall-clock time of each move. The search still stops after the simulation count,
+     * so raise the count to let the budget decide.
+     * @param millis The time per move in milliseconds, or 0 for no limit
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public void setTimeBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative");
         }
+        this.timeBudgetNanos = millis * 1_000_000;
     }
-    
+
     /**
-     * Gets the move from the most visited child of the root
+     * Reseeds the search so that its moves can be repeated exactly, when it runs on one thread
+     * or root-parallel without a time budget
+     * @param seed The seed
      */
-    private BoardSpace getMostVisitedChildMove(GameTreeNode<GameState> root) {
-        if (root.getChildren().isEmpty()) {
-            return null;
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        search.setSeed(seed);
+        if (treeParallel != null) {
+            treeParallel.setSeed(seed);
         }
-        
-        GameTreeNode<GameState> bestChild = null;
-        int mostVisits = -1;
-        
-        for (GameTreeNode<GameState> child : root.getChildren()) {
-            if (child.getVisits() > mostVisits) {
-                mostVisits = child.getVisits();
-                bestChild = child;
-            }
+        if (rootParallel != null) {
+            rootParallel.setSeed(seed);
+        }
+    }
+
+    /**
+     * @return The number of simulations the last move ran
+     */
+    public long getSimulations() {
+        if (treeParallel != null) {
+            return treeParallel.getSimulations();
+        }
+        return rootParallel != null ? rootParallel.getSimulations() : search.getSimulations();
+    }
+
+    /**
+     * @return The root visits the last move kept from the previous one, 0 if it searched a fresh tree
+     */
+    public long getReusedVisits() {
+        if (treeParallel != null) {
+            return treeParallel.getReusedVisits();
         }
-        
-        if (bestChild == null) {
-            return null;
+        return rootParallel != null ? rootParallel.getReusedVisits() : search.getReusedVisits();
+    }
+
+    /**
+     * @return The wall-clock time the last move took, in milliseconds
+     */
+    public double getTimeUsedMillis() {
+        return timeUsedNanos / 1e6;
+    }
+
+    @Override
+    public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
+        // Create a search position with the current player to move
+        Position position = new Position(game.getState(currentPlayer, opponent));
+
+        if (position.getLegalMoves() == 0) {
+            return null; // No valid moves
         }
-        
-        // Extract the move from the best child
-        if (bestChild.getData() instanceof GameStateWithMove) {
-            return ((GameStateWithMove) bestChild.getData()).getMove();
+
+        long start = System.nanoTime();
+        int move;
+        if (treeParallel != null) {
+            if (timeBudgetNanos > 0) {
+                treeParallel.setDeadline(start + timeBudgetNanos);
+            } else {
+                treeParallel.clearDeadline();
+            }
+            treeParallel.resetSimulations();
+            if (treeReuse) {
+                treeParallel.searchReusingTree(position, simulationCount);
+            } else {
+                treeParallel.search(position, simulationCount);
+            }
+            move = treeParallel.getBestMove();
+        } else if (rootParallel != null) {
+            if (timeBudgetNanos > 0) {
+                rootParallel.setDeadline(start + timeBudgetNanos);
+            } else {
+                rootParallel.clearDeadline();
+            }
+            rootParallel.resetSimulations();
+            move = treeReuse ? rootParallel.searchReusingTrees(position, simulationCount)
+                    : rootParallel.search(position, simulationCount);
+        } else {
+            if (timeBudgetNanos > 0) {
+                search.setDeadline(start + timeBudgetNanos);
+            } else {
+                search.clearDeadline();
+            }
+            search.resetSimulations();
+            if (treeReuse) {
+                search.searchReusingTree(position, simulationCount);
+            } else {
+                search.search(position, simulationCount);
+            }
+            move = search.getBestMove();
         }
-        
-        return null;
+        timeUsedNanos = System.nanoTime() - start;
+        return BoardSpace.of(move, BoardSpace.SpaceType.EMPTY);
+    }
+
+    /**
+     * Plays a random game out and scores it as a win, draw or loss for the side to move
+     * @param position The position to play out; it is not changed
+     * @param random The source of randomness
+     * @return 1 for a win, 0.5 for a draw, 0 for a loss
+     */
+    public static double playout(Position position, SplittableRandom random) {
+        int margin = position.playRandomGame(random);
+        return margin > 0 ? 1 : margin < 0 ? 0 : 0.5;
     }
-}
\ No newline at end of file
+}
@@ -1,121 +1,386 @@
 package othello.gamelogic.strategies;
 
-import graph.search.GameTreeNode;
-import graph.search.MiniMax;
+import graph.search.AlphaBeta;
+import graph.search.LateMoveReductions;
+import graph.search.LazySMP;
+import graph.search.MTDF;
+import graph.search.MoveOrdering;
+import graph.search.ProbCut;
+import graph.search.TranspositionTable;
 import othello.gamelogic.*;
-import java.util.Map;
-import java.util.List;
 
 /**
  * Implements a strategy using the Minimax algorithm with alpha-beta pruning.
+ * The search walks a single {@link Position} in place, so every ply up to maxDepth is searched
+ * without building a game tree.
+ * Moves are found by iterative deepening: depth 1, 2, ... up to maxDepth, each iteration trying the
+ * previous best move first. With a time budget, a move is always ready and the search stops at the deadline.
+ * With few enough empty squares left, an exact {@link EndgameSolver} replaces the heuristic search.
+ * With more than one thread, Lazy SMP helpers search the same position alongside the main thread
+ * and share their results through the transposition table.
  */
 public class MinimaxStrategy implements Strategy {
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    /** Empty squares at and below which the endgame solver plays by default. */
+    public static final int DEFAULT_ENDGAME_EMPTIES = 12;
+
+    // half-width of the first aspiration window, in evaluation points
+    private static final double ASPIRATION_WINDOW = 40;
+
+    /**
+     * The search algorithm used for each iteration.
+     */
+    public enum Engine {
+        /** Alpha-beta with a full window at every iteration. */
+        ALPHA_BETA,
+        /** Principal variation search, with aspiration windows around the previous iteration's score. */
+        PVS,
+        /** MTD(f), zero-window searches converging from the previous iteration's score. */
+        MTDF
+    }
+
     private final BoardEvaluator evaluator;
-    private final int maxDepth;
-    
+    private int maxDepth;
+    private long timeBudgetNanos;
+    private final TranspositionTable transpositionTable;
+    private final AlphaBeta<Position> engine;
+    private final MTDF<Position> mtdf;
+    private final MoveOrdering moveOrdering;
+    private Engine engineType = Engine.ALPHA_BETA;
+    private int threads = 1;
+    private LazySMP<Position> helpers;
+    private ProbCut<Position> probCut;
+    private LateMoveReductions reductions;
+    private EndgameSolver endgameSolver;
+    private int endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+    private EndgameSolver.Mode endgameMode = EndgameSolver.Mode.EXACT;
+
+    private int depthReached;
+    private boolean solved;
+    private long timeUsedNanos;
+
     public MinimaxStrategy() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * Creates a minimax strategy that reads and fills the given transposition table,
+     * which may be shared with other strategies and search threads
+     * @param transpositionTable The table to use
+     */
+    public MinimaxStrategy(TranspositionTable transpositionTable) {
         this.evaluator = new WeightedEvaluator();
         this.maxDepth = 4; // Configurable depth
+        this.transpositionTable = transpositionTable;
+        this.engine = new AlphaBeta<>(this::evaluate, Position.MAX_MOVES);
+        this.engine.setTranspositionTable(transpositionTable);
+        this.moveOrdering = new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY);
+        this.engine.setMoveOrdering(moveOrdering);
+        this.mtdf = new MTDF<>(engine);
     }
-    
-    @Override
-    public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
-        // Get available moves
-        Map<BoardSpace, List<BoardSpace>> availableMoves = game.getAvailableMoves(currentPlayer);
-        
-        if (availableMoves.isEmpty()) {
-            return null; // No valid moves
+
+    /**
+     * Creates a minimax strategy with its own transposition table, using the given search algorithm
+     * @param engineType The algorithm to use
+     */
+    public MinimaxStrategy(Engine engineType) {
+        this();
+        setEngine(engineType);
+    }
+
+    /**
+     * @return The transposition table used by this strategy
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * @return The fraction of transposition table probes that found their position
+     */
+    public double getHitRate() {
+        return transpositionTable.getHitRate();
+    }
+
+    /**
+     * Sets the deepest iteration of the search
+     * @param maxDepth The depth limit in plies
+     * @throws IllegalArgumentException if the depth is not between 1 and MAX_PLY - 1
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth <= 0 || maxDepth >= AlphaBeta.MAX_PLY) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + (AlphaBeta.MAX_PLY - 1));
         }
-        
-        // Create game state representation
-        GameState initialState = new GameState(game.getBoard(), currentPlayer, opponent);
-        
-        // Create root node for the search tree
-        GameTreeNode<GameState> rootNode = new GameTreeNode<>(initialState);
-        
-        // Create child nodes for each available move
-        for (BoardSpace move : availableMoves.keySet()) {
-            GameState childState = initialState.applyMove(move);
-            GameTreeNode<GameState> childNode = new GameTreeNode<>(childState);
-            rootNode.addChild(childNode);
-            
-            // Store the move in the node for retrieval later
-            childNode.setData(new GameStateWithMove(childState, move));
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return The deepest iteration of the search
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Limits the wall-clock time of each move. The search still stops at maxDepth,
+     * so raise the depth limit to let the budget decide.
+     * @param millis The time per move in milliseconds, or 0 for no limit
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public void setTimeBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative");
         }
-        
-        // Use graph package's MiniMax implementation
-        MiniMax.search(
-            rootNode, 
-            maxDepth, 
-            true, // maximizing player
-            Double.NEGATIVE_INFINITY,
-            Double.POSITIVE_INFINITY,
-            (state, isMax) -> {
-                Player evalPlayer;
-                Player evalOpponent;
-                
-                if (isMax) {
-                    evalPlayer = currentPlayer;
-                    evalOpponent = opponent;
-                } else {
-                    evalPlayer = opponent;
-                    evalOpponent = currentPlayer;
-                }
-                
-                return evaluator.evaluate(
-                    ((GameState)state ).getBoard(),
-                    evalPlayer,
-                    evalOpponent);
-            }
-        );
-        
-        // Find child with the best score
-        return getBestChildMove(rootNode);
+        this.timeBudgetNanos = millis * 1_000_000;
+    }
+
+    /**
+     * Selects the search algorithm
+     * @param engineType The algorithm to use
+     */
+    public void setEngine(Engine engineType) {
+        this.engineType = engineType;
+        engine.setPrincipalVariation(engineType == Engine.PVS);
+        setThreads(threads);
+    }
+
+    /**
+     * @return The search algorithm in use
+     */
+    public Engine getEngine() {
+        return engineType;
     }
-    
+
     /**
-     * Helper class to store a move with a game state
+     * Sets the number of search threads. Beyond the first, each thread is a Lazy SMP helper
+     * running its own iterative deepening and sharing the transposition table.
+     * @param threads The total thread count
+     * @throws IllegalArgumentException if threads is not positive
      */
-    private static class GameStateWithMove extends GameState {
-        private final BoardSpace move;
-        
-        public GameStateWithMove(GameState state, BoardSpace move) {
-            super(state.getBoard(), state.getCurrentPlayer(), state.getOpponent());
-            this.move = move;
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (helpers != null) {
+            helpers.close();
+            helpers = null;
         }
-        
-        public BoardSpace getMove() {
-            return move;
+        this.threads = threads;
+        if (threads > 1) {
+            helpers = new LazySMP<>(threads - 1, this::createHelperEngine);
+        }
+    }
+
+    /**
+     * @return The total number of search threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    // Helpers search like the main engine but keep their own ordering tables
+    private AlphaBeta<Position> createHelperEngine() {
+        AlphaBeta<Position> helper = new AlphaBeta<>(this::evaluate, Position.MAX_MOVES);
+        helper.setTranspositionTable(transpositionTable);
+        helper.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        helper.setPrincipalVariation(engineType == Engine.PVS);
+        helper.setProbCut(probCut);
+        helper.setLateMoveReductions(reductions);
+        return helper;
+    }
+
+    /**
+     * Turns killer and history move ordering on or off; the table move is tried first either way
+     * @param enabled Whether to use killer and history ordering
+     */
+    public void setMoveOrdering(boolean enabled) {
+        engine.setMoveOrdering(enabled ? moveOrdering : null);
+    }
+
+    /**
+     * Enables shallow-search ordering at nodes with no table move, see {@link AlphaBeta#setShallowSearchDepth(int)}
+     * @param minDepth The smallest remaining depth to do it at, or 0 to disable
+     */
+    public void setShallowSearchDepth(int minDepth) {
+        engine.setShallowSearchDepth(minDepth);
+    }
+
+    /**
+     * Enables enhanced transposition cutoffs, see {@link AlphaBeta#setEnhancedTranspositionCutoffDepth(int)}
+     * @param minDepth The smallest remaining depth to do it at, or 0 to disable
+     */
+    public void setEnhancedTranspositionCutoffDepth(int minDepth) {
+        engine.setEnhancedTranspositionCutoffDepth(minDepth);
+    }
+
+    /**
+     * Sets when the exact endgame solver takes over from the heuristic search.
+     * The solver ignores the depth limit and time budget, so keep this low enough to solve quickly:
+     * around 20 empties takes seconds.
+     * @param empties The number of empty squares at and below which to solve, or 0 to never solve
+     * @throws IllegalArgumentException if empties is negative
+     */
+    public void setEndgameEmpties(int empties) {
+        if (empties < 0) {
+            throw new IllegalArgumentException("Endgame empties must not be negative");
         }
+        this.endgameEmpties = empties;
+    }
+
+    /**
+     * @return The number of empty squares at and below which the endgame solver plays
+     */
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    /**
+     * Selects what the endgame solver proves: the exact margin, or the faster win/loss/draw,
+     * which plays a winning move but not necessarily the one winning by most
+     * @param mode The solver mode
+     */
+    public void setEndgameMode(EndgameSolver.Mode mode) {
+        this.endgameMode = mode;
+    }
+
+    /**
+     * Enables late move reductions, see {@link AlphaBeta#setLateMoveReductions(LateMoveReductions)}
+     * @param reductions The reduction table, or null to search every move to full depth
+     */
+    public void setLateMoveReductions(LateMoveReductions reductions) {
+        this.reductions = reductions;
+        engine.setLateMoveReductions(reductions);
+        setThreads(threads);
+    }
+
+    /**
+     * Enables Multi-ProbCut selective search, which reaches deeper at the risk of missing some moves,
+     * see {@link AlphaBeta#setProbCut(ProbCut)}. The models come from the ProbCut calibration tool.
+     * @param probCut The models to use, or null to search every node fully
+     */
+    public void setProbCut(ProbCut<Position> probCut) {
+        this.probCut = probCut;
+        engine.setProbCut(probCut);
+        setThreads(threads);
+    }
+
+    /**
+     * @return The fraction of cutoffs in the last search caused by the first move tried
+     */
+    public double getFirstMoveCutoffRate() {
+        return engine.getFirstMoveCutoffRate();
+    }
+
+    /**
+     * @return The depth of the last fully completed iteration of the last move,
+     * or the number of empties when the endgame solver played it
+     */
+    public int getDepthReached() {
+        return depthReached;
+    }
+
+    /**
+     * @return The wall-clock time the last move took, in milliseconds
+     */
+    public double getTimeUsedMillis() {
+        return timeUsedNanos / 1e6;
     }
-    
+
     /**
-     * Gets the move from the best child of the root
+     * @return The number of positions visited by the last search, helper threads included,
+     * or by the endgame solver when it played the last move
      */
-    private BoardSpace getBestChildMove(GameTreeNode<GameState> root) {
-        if (root.getChildren().isEmpty()) {
-            return null;
+    public long getNodes() {
+        if (solved) {
+            return endgameSolver.getNodes();
         }
-        
-        GameTreeNode<GameState> bestChild = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
-        
-        for (GameTreeNode<GameState> child : root.getChildren()) {
-            if (child.getScore() > bestScore) {
-                bestScore = child.getScore();
-                bestChild = child;
+        return engine.getNodes() + (helpers == null ? 0 : helpers.getNodes());
+    }
+
+    @Override
+    public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
+        // Create a search position with the current player to move
+        Position position = new Position(game.getState(currentPlayer, opponent));
+
+        if (position.getLegalMoves() == 0) {
+            return null; // No valid moves
+        }
+
+        long start = System.nanoTime();
+        solved = position.getEmptyCount() <= endgameEmpties;
+        if (solved) {
+            if (endgameSolver == null) {
+                endgameSolver = new EndgameSolver();
             }
+            endgameSolver.resetNodes();
+            endgameSolver.solve(position, endgameMode);
+            depthReached = position.getEmptyCount();
+            timeUsedNanos = System.nanoTime() - start;
+            return BoardSpace.of(endgameSolver.getBestMove(), BoardSpace.SpaceType.EMPTY);
         }
-        
-        if (bestChild == null) {
-            return null;
+
+        transpositionTable.newSearch();
+        engine.resetNodes();
+        moveOrdering.age();
+        if (timeBudgetNanos > 0) {
+            engine.setDeadline(start + timeBudgetNanos);
+        } else {
+            engine.clearDeadline();
+        }
+
+        if (helpers != null) {
+            helpers.resetNodes();
+            helpers.start(position, maxDepth);
+        }
+        try {
+            return BoardSpace.of(iterativeDeepening(position, start), BoardSpace.SpaceType.EMPTY);
+        } finally {
+            if (helpers != null) {
+                helpers.stop();
+            }
+            timeUsedNanos = System.nanoTime() - start;
         }
-        
-        // Extract the move from the best child
-        if (bestChild.getData() instanceof GameStateWithMove) {
-            return ((GameStateWithMove) bestChild.getData()).getMove();
+    }
+
+    // Runs the main thread's iterations and returns the best move found
+    private int iterativeDeepening(Position position, long start) {
+        // any legal move is better than none if even depth 1 runs out of time
+        int bestMove = Long.numberOfTrailingZeros(position.getLegalMoves());
+        depthReached = 0;
+        double score = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (engineType == Engine.MTDF) {
+                score = mtdf.search(position, depth, score);
+                if (!engine.isAborted()) {
+                    // an unfinished MTD(f) iteration has no proven best move
+                    bestMove = mtdf.getBestMove();
+                }
+            } else {
+                if (engineType == Engine.PVS && depth > 1) {
+                    score = engine.searchWithAspiration(position, depth, score, ASPIRATION_WINDOW);
+                } else {
+                    score = engine.search(position, depth);
+                }
+                if (engine.getBestMove() != AlphaBeta.NO_MOVE) {
+                    // an aborted iteration searched the previous best first, so its best is at least as good
+                    bestMove = engine.getBestMove();
+                }
+            }
+            if (engine.isAborted()) {
+                break;
+            }
+            depthReached = depth;
+            // the next iteration takes several times longer, so don't start one we can't finish
+            if (timeBudgetNanos > 0 && System.nanoTime() - start > timeBudgetNanos / 2) {
+                break;
+            }
         }
-        
-        return null;
+        return bestMove;
+    }
+
+    // Scores a position for the side to move, as negamax expects
+    private double evaluate(Position position) {
+        return evaluator.evaluate(position.getPlayerDiscs(), position.getOpponentDiscs());
     }
-}
\ No newline at end of file
+}
@@ -2,15 +2,18 @@ package othello.gamelogic.strategies;
 
 import deeplearningjava.Network;
 import othello.gamelogic.*;
-import java.util.Map;
-import java.util.List;
 
 /**
  * Implements the custom strategy using a neural network for board evaluation.
  * This is the main integration point between the deep learning framework and the Othello game.
  */
 public class NeuralStrategy implements Strategy {
+    // Direct-mapped evaluation cache, indexed by the low bits of the canonical key
+    private static final int CACHE_SIZE = 1 << 16;
+    
     private final Network network;
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final double[] cacheScores = new double[CACHE_SIZE];
     
     /**
      * Creates a neural network strategy with the provided network
@@ -22,24 +25,26 @@ public class NeuralStrategy implements Strategy {
     
     @Override
     public BoardSpace getBestMove(OthelloGame game, Player currentPlayer, Player opponent) {
+        // Create game state representation
+        GameState state = game.getState(currentPlayer, opponent);
+        
         // Get available moves
-        Map<BoardSpace, List<BoardSpace>> availableMoves = game.getAvailableMoves(currentPlayer);
+        long availableMoves = state.getLegalMoves();
         
-        if (availableMoves.isEmpty()) {
+        if (availableMoves == 0) {
             return null; // No valid moves
         }
         
         // Use a minimax-like approach but with neural network for evaluation
-        BoardSpace bestMove = null;
+        int bestMove = -1;
         double bestScore = Double.NEGATIVE_INFINITY;
         
         // For each possible move, evaluate the resulting board state
-        for (BoardSpace move : availableMoves.keySet()) {
-            // Create a temporary game state
-            GameState state = new GameState(game.getBoard(), currentPlayer, opponent);
+        for (long moves = availableMoves; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
             
             // Apply the move
-            GameState nextState = state.applyMove(move);
+            GameState nextState = state.applyMove(square);
             
             // Evaluate using neural network
             double score = evaluateWithNetwork(nextState);
@@ -47,26 +52,43 @@ public class NeuralStrategy implements Strategy {
             // Keep track of the best move
             if (score > bestScore) {
                 bestScore = score;
-                bestMove = move;
+                bestMove = square;
             }
         }
         
-        return bestMove;
+        return BoardSpace.of(bestMove, BoardSpace.SpaceType.EMPTY);
     }
     
     /**
-     * Evaluates a game state using the neural network
+     * Evaluates a game state using the neural network.
+     * The position is first brought to its canonical orientation, so all 8 symmetric variants
+     * get the same input and share one cached evaluation.
      * @param state The game state to evaluate
      * @return The evaluation score
      */
     private double evaluateWithNetwork(GameState state) {
+        long playerDiscs = state.getPlayerDiscs();
+        long opponentDiscs = state.getOpponentDiscs();
+        int transform = Symmetry.canonicalTransform(playerDiscs, opponentDiscs);
+        playerDiscs = Symmetry.transform(playerDiscs, transform);
+        opponentDiscs = Symmetry.transform(opponentDiscs, transform);
+        
+        // Key the player's discs as black, so the key is relative to the side to move
+        long key = Zobrist.hash(playerDiscs, opponentDiscs, true);
+        int slot = (int) key & (CACHE_SIZE - 1);
+        if (cacheKeys[slot] == key) {
+            return cacheScores[slot];
+        }
+        
         // Convert board state to network input features
-        double[] input = BoardToInputMapper.mapToInput(state.getBoard(), state.getCurrentPlayer());
+        double[] input = BoardToInputMapper.mapToInput(playerDiscs, opponentDiscs);
         
         // Pass through the neural network
         double[] output = network.feedForward(input);
         
         // Return the evaluation score (assuming single output)
+        cacheKeys[slot] = key;
+        cacheScores[slot] = output[0];
         return output[0];
     }
     
@@ -17,6 +17,8 @@ public class StrategyFactory {
     public static Strategy createStrategy(String strategyName) {
         return switch(strategyName) {
             case "minimax" -> new MinimaxStrategy();
+            case "pvs" -> new MinimaxStrategy(MinimaxStrategy.Engine.PVS);
+            case "mtdf" -> new MinimaxStrategy(MinimaxStrategy.Engine.MTDF);
             case "expectimax" -> new ExpectimaxStrategy();
             case "mcts" -> new MCTSStrategy();
             case "custom" -> new NeuralStrategy(createDefaultNetwork());
@@ -1,29 +1,44 @@
 package othello.gamelogic.strategies;
 
 import othello.Constants;
+import othello.gamelogic.BitBoard;
 import othello.gamelogic.BoardSpace;
+import othello.gamelogic.OthelloGame;
 import othello.gamelogic.Player;
 
 /**
  * Evaluates board positions based on position weights.
  */
 public class WeightedEvaluator implements BoardEvaluator {
+    // BOARD_WEIGHTS flattened by square index, so bitboards can be scored bit by bit
+    private static final int[] SQUARE_WEIGHTS = new int[BitBoard.SQUARES];
+
+    static {
+        for (int i = 0; i < OthelloGame.GAME_BOARD_SIZE; i++) {
+            for (int j = 0; j < OthelloGame.GAME_BOARD_SIZE; j++) {
+                SQUARE_WEIGHTS[BitBoard.square(i, j)] = Constants.BOARD_WEIGHTS[i][j];
+            }
+        }
+    }
     
     @Override
     public double evaluate(BoardSpace[][] board, Player player, Player opponent) {
-        double score = 0;
-        
-        // Calculate weighted score for player and opponent
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                if (board[i][j].getType() == player.getColor()) {
-                    score += Constants.BOARD_WEIGHTS[i][j];
-                } else if (board[i][j].getType() == opponent.getColor()) {
-                    score -= Constants.BOARD_WEIGHTS[i][j];
-                }
-            }
+        return evaluate(BitBoard.fromBoard(board, player.getColor()),
+                BitBoard.fromBoard(board, opponent.getColor()));
+    }
+
+    @Override
+    public double evaluate(long playerDiscs, long opponentDiscs) {
+        return weight(playerDiscs) - weight(opponentDiscs);
+    }
+
+    // Sums the positional weight of every disc in the mask
+    private static int weight(long discs) {
+        int score = 0;
+        while (discs != 0) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(discs)];
+            discs &= discs - 1;
         }
-        
         return score;
     }
-}
\ No newline at end of file
+}
@@ -253,7 +253,7 @@ public class GameController  {
             if (destination != selectedDestination) {
                 // Reinit unselected spaces, to remove event handlers
                 og.getBoard()[destination.getX()][destination.getY()] =
-                        new BoardSpace(destination.getX(), destination.getY(), BoardSpace.SpaceType.EMPTY);
+                        BoardSpace.of(destination.getX(), destination.getY(), BoardSpace.SpaceType.EMPTY);
                 gameBoard.getChildren().remove(guiSpace.getSquare());
                 GUISpace newGuiSpace = new GUISpace(destination.getX(), destination.getY(), BoardSpace.SpaceType.EMPTY);
                 Pane newSquare = newGuiSpace.getSquare();
@@ -261,7 +261,7 @@ public class GameController  {
                 guiBoard[destination.getX()][destination.getY()] = guiSpace;
             } else {
                 og.getBoard()[destination.getX()][destination.getY()] =
-                        new BoardSpace(destination.getX(), destination.getY(), player.getColor());
+                        BoardSpace.of(destination.getX(), destination.getY(), player.getColor());
                 gameBoard.getChildren().remove(guiSpace.getSquare());
                 GUISpace newGuiSpace = new GUISpace(destination.getX(), destination.getY(), player.getColor());
                 Pane newSquare = newGuiSpace.getSquare();
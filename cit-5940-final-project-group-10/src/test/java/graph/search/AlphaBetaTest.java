@@ -0,0 +1,172 @@
+package graph.search;
+
+import othello.benchmark.Perft;
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    // Plain negamax over every child, the reference the pruned search must agree with
+    private static double negamax(Position position, int depth) {
+        if (depth == 0) {
+            return EVALUATOR.applyAsDouble(position);
+        }
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        if (position.generateMoves(moves) == 0) {
+            return position.terminalScore();
+        }
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            best = Math.max(best, -negamax(position, depth - 1));
+            position.undoMove();
+        }
+        return best;
+    }
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    @Test
+    public void testMatchesNegamax() {
+        Random random = new Random(11);
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            String before = position.toString();
+            assertEquals(negamax(position, 4), engine.search(position, 4));
+            assertEquals(before, position.toString());
+        }
+    }
+
+    @Test
+    public void testTranspositionTableKeepsScore() {
+        Random random = new Random(12);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> cached = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        cached.setTranspositionTable(new TranspositionTable(1));
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            cached.getTranspositionTable().newSearch();
+            assertEquals(plain.search(position, 5), cached.search(position, 5));
+        }
+    }
+
+    @Test
+    public void testTranspositionTableKeepsScoresThatDoNotFitAFloat() {
+        // fractional scores get rounded in the table, which must not turn the null windows into false cutoffs
+        ToDoubleFunction<Position> fractional = p -> EVALUATOR.applyAsDouble(p) * 0.1 + 1.0 / 3;
+        Random random = new Random(13);
+        AlphaBeta<Position> plain = new AlphaBeta<>(fractional, Position.MAX_MOVES);
+        AlphaBeta<Position> cached = new AlphaBeta<>(fractional, Position.MAX_MOVES);
+        cached.setPrincipalVariation(true);
+        cached.setTranspositionTable(new TranspositionTable(1));
+        for (int i = 0; i < 40; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            assertEquals(plain.search(position, 5), cached.search(position, 5));
+        }
+    }
+
+    @Test
+    public void testPrunesAndReturnsLegalMove() {
+        Position position = new Position();
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        engine.search(position, 6);
+        assertNotEquals(0, position.getLegalMoves() & (1L << engine.getBestMove()));
+        assertTrue(engine.getNodes() < Perft.START_COUNTS[6]);
+    }
+
+    @Test
+    public void testFinishedGameUsesTerminalScore() {
+        // black owns the only discs, so white to move has lost
+        Position position = new Position(BitBoard.bit(0, 0) | BitBoard.bit(0, 1), 0, false);
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        assertEquals(position.terminalScore(), engine.search(position, 3));
+        assertEquals(AlphaBeta.NO_MOVE, engine.getBestMove());
+    }
+
+    @Test
+    public void testOrderingKeepsScoreAndImprovesCutoffs() {
+        Random random = new Random(13);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> ordered = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        ordered.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        ordered.setTranspositionTable(new TranspositionTable(1));
+        ordered.setShallowSearchDepth(3);
+        for (int i = 0; i < 10; i++) {
+            Position position = randomPosition(random, 10 + random.nextInt(30));
+            ordered.getTranspositionTable().newSearch();
+            assertEquals(plain.search(position, 5), ordered.search(position, 5));
+        }
+        assertTrue(ordered.getFirstMoveCutoffRate() > plain.getFirstMoveCutoffRate());
+    }
+
+    @Test
+    public void testPrincipalVariationMatchesAlphaBeta() {
+        Random random = new Random(14);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> pvs = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        pvs.setPrincipalVariation(true);
+        pvs.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            assertEquals(plain.search(position, 5), pvs.search(position, 5));
+        }
+        assertTrue(pvs.getResearches() > 0);
+    }
+
+    @Test
+    public void testAspirationMatchesFullWindow() {
+        Random random = new Random(15);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> aspiration = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        aspiration.setPrincipalVariation(true);
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            double expected = plain.search(position, 4);
+            // guesses far off on either side force re-searches
+            assertEquals(expected, aspiration.searchWithAspiration(position, 4, expected + 500, 10));
+            assertEquals(expected, aspiration.searchWithAspiration(position, 4, expected - 500, 10));
+            assertEquals(expected, aspiration.searchWithAspiration(position, 4, expected, 10));
+        }
+    }
+
+    @Test
+    public void testEnhancedTranspositionCutoffsKeepScore() {
+        Random random = new Random(16);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> etc = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        etc.setTranspositionTable(new TranspositionTable(1));
+        etc.setEnhancedTranspositionCutoffDepth(2);
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            etc.getTranspositionTable().newSearch();
+            // iterative deepening leaves the children's entries behind for the deeper searches
+            for (int depth = 1; depth < 5; depth++) {
+                etc.search(position, depth);
+            }
+            assertEquals(plain.search(position, 5), etc.search(position, 5));
+        }
+        assertTrue(etc.getEtcTries() > 0);
+        assertTrue(etc.getEtcCutoffs() > 0);
+        etc.resetNodes();
+        assertEquals(0, etc.getEtcTries());
+        assertEquals(0, etc.getEtcCutoffs());
+    }
+}
@@ -0,0 +1,78 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LateMoveReductionsTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    @Test
+    public void testLogarithmicTable() {
+        LateMoveReductions table = LateMoveReductions.logarithmic(10, 20, 3, 2, 0.5, 2);
+        assertEquals(0, table.reduction(2, 10));
+        assertEquals(0, table.reduction(8, 1));
+        assertTrue(table.reduction(8, 15) > 0);
+        // reductions never shrink with depth or move index
+        assertTrue(table.reduction(9, 15) >= table.reduction(5, 15));
+        assertTrue(table.reduction(9, 19) >= table.reduction(9, 5));
+        for (int depth = 3; depth <= 10; depth++) {
+            assertTrue(table.reduction(depth, 19) <= depth - 2);
+        }
+        // beyond the table, the last row and column apply
+        assertEquals(table.reduction(10, 19), table.reduction(40, 60));
+        assertThrows(IllegalArgumentException.class, () -> table.set(3, 5, 2));
+    }
+
+    @Test
+    public void testEmptyTableKeepsScore() {
+        Random random = new Random(61);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> reduced = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        reduced.setLateMoveReductions(new LateMoveReductions(10, Position.MAX_MOVES));
+        for (int i = 0; i < 10; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            assertEquals(plain.search(position, 5), reduced.search(position, 5));
+        }
+        assertEquals(0, reduced.getReducedMoves());
+    }
+
+    @Test
+    public void testReductionsSaveNodes() {
+        Random random = new Random(62);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> reduced = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        plain.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        reduced.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        reduced.setLateMoveReductions(LateMoveReductions.logarithmic(10, Position.MAX_MOVES, 3, 2, 1, 1));
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < 10; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            String before = position.toString();
+            plain.search(position, 6);
+            reduced.search(position, 6);
+            assertEquals(before, position.toString());
+            position.generateMoves(moves);
+            assertTrue(moves.indexOf(reduced.getBestMove()) >= 0);
+        }
+        assertTrue(reduced.getReducedMoves() > 0);
+        assertTrue(reduced.getReductionResearches() <= reduced.getReducedMoves());
+        assertTrue(reduced.getNodes() < plain.getNodes());
+    }
+}
@@ -0,0 +1,75 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazySMPTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    private static AlphaBeta<Position> createEngine(TranspositionTable table) {
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        engine.setTranspositionTable(table);
+        engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY));
+        return engine;
+    }
+
+    @Test
+    public void testHelpersKeepScore() {
+        Random random = new Random(41);
+        AlphaBeta<Position> sequential = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        TranspositionTable table = new TranspositionTable(4);
+        AlphaBeta<Position> engine = createEngine(table);
+        try (LazySMP<Position> helpers = new LazySMP<>(3, () -> createEngine(table))) {
+            assertEquals(3, helpers.getHelperCount());
+            for (int i = 0; i < 8; i++) {
+                Position position = randomPosition(random, 4 + random.nextInt(40));
+                String before = position.toString();
+                table.clear();
+                helpers.start(position, 5);
+                double score = 0;
+                for (int depth = 1; depth <= 5; depth++) {
+                    score = engine.search(position, depth);
+                }
+                helpers.stop();
+                assertEquals(sequential.search(position, 5), score);
+                // the helpers work on copies
+                assertEquals(before, position.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testStopEndsHelpers() {
+        TranspositionTable table = new TranspositionTable(4);
+        try (LazySMP<Position> helpers = new LazySMP<>(2, () -> createEngine(table))) {
+            helpers.start(new Position(), 60);
+            helpers.stop();
+            assertTrue(helpers.getDepthReached(0) < 60);
+            assertTrue(helpers.getNodes() >= 0);
+            helpers.resetNodes();
+            assertEquals(0, helpers.getNodes());
+        }
+    }
+
+    @Test
+    public void testRejectsNegativeHelperCount() {
+        assertThrows(IllegalArgumentException.class, () -> new LazySMP<Position>(-1, () -> null));
+    }
+}
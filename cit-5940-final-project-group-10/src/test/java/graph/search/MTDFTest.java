@@ -0,0 +1,65 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MTDFTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    @Test
+    public void testConvergesToMinimaxValue() {
+        Random random = new Random(21);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        engine.setTranspositionTable(new TranspositionTable(4));
+        MTDF<Position> mtdf = new MTDF<>(engine);
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            double expected = plain.search(position, 5);
+            for (double guess : new double[] {0, expected, expected - 300, expected + 300}) {
+                engine.getTranspositionTable().newSearch();
+                assertEquals(expected, mtdf.search(position, 5, guess));
+            }
+        }
+    }
+
+    @Test
+    public void testBestMoveReachesValue() {
+        Random random = new Random(22);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> engine = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        engine.setTranspositionTable(new TranspositionTable(4));
+        MTDF<Position> mtdf = new MTDF<>(engine);
+        for (int i = 0; i < 20; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            engine.getTranspositionTable().newSearch();
+            double value = mtdf.search(position, 4, 0);
+            position.makeMove(mtdf.getBestMove());
+            assertEquals(value, -plain.search(position, 3));
+            position.undoMove();
+        }
+    }
+
+    @Test
+    public void testRequiresTranspositionTable() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MTDF<>(new AlphaBeta<Position>(EVALUATOR, Position.MAX_MOVES)));
+    }
+}
@@ -0,0 +1,162 @@
+package graph.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MctsNodeArenaTest {
+
+    private static MoveList moves(int... squares) {
+        MoveList list = new MoveList(64);
+        for (int square : squares) {
+            list.add(square);
+        }
+        return list;
+    }
+
+    @Test
+    public void testExpandsChildrenContiguously() {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        assertEquals(1024 * 1024 / MctsNodeArena.BYTES_PER_NODE, arena.getCapacity());
+        int root = arena.allocateRoot(-1);
+        assertEquals(0, arena.getChildCount(root));
+        assertTrue(arena.expand(root, moves(19, 26, 37, 44)));
+        assertFalse(arena.expand(root, moves(1, 2)));
+        assertFalse(arena.expand(arena.getFirstChild(root), moves()));
+        assertEquals(4, arena.getChildCount(root));
+        assertEquals(5, arena.size());
+        int first = arena.getFirstChild(root);
+        assertEquals(19, arena.getMove(first));
+        assertEquals(44, arena.getMove(first + 3));
+        assertEquals(0, arena.getChildCount(first + 3));
+
+        assertEquals(0, arena.addVisits(first, 2));
+        arena.addValue(first, 1.5);
+        assertEquals(2, arena.getVisits(first));
+        assertEquals(1.5, arena.getValueSum(first));
+        assertEquals(0.75 + Math.sqrt(Math.log(8) / 2), arena.getUCB1(first, 8, 1));
+        assertEquals(Double.POSITIVE_INFINITY, arena.getUCB1(first + 1, 8, 1));
+    }
+
+    @Test
+    public void testResetFreesAllNodes() {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        int root = arena.allocateRoot(-1);
+        arena.expand(root, moves(1, 2, 3));
+        arena.addVisits(arena.getFirstChild(root), 5);
+        arena.reset();
+        assertEquals(0, arena.size());
+        root = arena.allocateRoot(-1);
+        assertEquals(0, root);
+        assertEquals(0, arena.getChildCount(root));
+        assertTrue(arena.expand(root, moves(4, 5)));
+        assertEquals(0, arena.getVisits(arena.getFirstChild(root)));
+        assertEquals(4, arena.getMove(arena.getFirstChild(root)));
+    }
+
+    @Test
+    public void testFullArenaLeavesLeaves() {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        MoveList many = moves(new int[60]);
+        int node = arena.allocateRoot(-1);
+        while (arena.expand(node, many)) {
+            node = arena.getFirstChild(node);
+        }
+        assertEquals(0, arena.getChildCount(node));
+        assertTrue(arena.size() <= arena.getCapacity());
+        while (arena.allocateRoot(-1) != MctsNodeArena.NONE) {
+            assertTrue(arena.size() <= arena.getCapacity());
+        }
+        assertEquals(arena.getCapacity(), arena.size());
+        assertFalse(arena.expand(node, moves(1)));
+    }
+
+    @Test
+    public void testKeepSubtreeCompactsInPlace() {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        int root = arena.allocateRoot(-1);
+        arena.expand(root, moves(1, 2));
+        int kept = arena.getFirstChild(root) + 1;
+        arena.expand(kept, moves(3, 4, 5));
+        arena.expand(arena.getFirstChild(root), moves(6));
+        int grandchild = arena.getFirstChild(kept) + 2;
+        arena.expand(grandchild, moves(7));
+        arena.addVisits(kept, 9);
+        arena.addValue(kept, 4.5);
+        arena.addVisits(grandchild, 2);
+
+        int copy = arena.keepSubtree(kept);
+        assertEquals(0, copy);
+        assertEquals(5, arena.size());
+        assertEquals(2, arena.getMove(copy));
+        assertEquals(9, arena.getVisits(copy));
+        assertEquals(4.5, arena.getValueSum(copy));
+        assertEquals(3, arena.getChildCount(copy));
+        int first = arena.getFirstChild(copy);
+        assertEquals(3, arena.getMove(first));
+        assertEquals(0, arena.getChildCount(first));
+        assertEquals(2, arena.getVisits(first + 2));
+        assertEquals(1, arena.getChildCount(first + 2));
+        assertEquals(7, arena.getMove(arena.getFirstChild(first + 2)));
+        // the freed nodes are handed out again
+        assertTrue(arena.expand(first, moves(8, 9)));
+        assertEquals(7, arena.size());
+    }
+
+    @Test
+    public void testKeepSubtreeInFullArenaKeepsWhatFits() {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        int root = arena.allocateRoot(-1);
+        arena.expand(root, moves(1, 2));
+        int kept = arena.getFirstChild(root);
+        arena.expand(kept, moves(3, 4));
+        arena.addVisits(kept, 5);
+        while (arena.allocateRoot(-1) != MctsNodeArena.NONE) {
+            // fill the arena
+        }
+        int copy = arena.keepSubtree(kept);
+        assertEquals(1, arena.size());
+        assertEquals(5, arena.getVisits(copy));
+        assertEquals(1, arena.getMove(copy));
+        assertEquals(0, arena.getChildCount(copy));
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreAtomic() throws InterruptedException {
+        MctsNodeArena arena = new MctsNodeArena(1);
+        int root = arena.allocateRoot(-1);
+        AtomicInteger expanded = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                if (arena.expand(root, moves(1, 2))) {
+                    expanded.incrementAndGet();
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    arena.addVisits(root, 3);
+                    arena.addValue(root, 0.5);
+                    arena.addVisits(root, -2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, expanded.get());
+        assertEquals(2, arena.getChildCount(root));
+        assertEquals(3, arena.size());
+        assertEquals(80_000, arena.getVisits(root));
+        assertEquals(40_000, arena.getValueSum(root));
+    }
+
+    @Test
+    public void testRejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MctsNodeArena(0));
+    }
+}
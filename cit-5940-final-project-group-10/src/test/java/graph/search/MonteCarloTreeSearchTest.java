@@ -0,0 +1,150 @@
+package graph.search;
+
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.EndgameSolver;
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.MCTSStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloTreeSearchTest {
+    private static MonteCarloTreeSearch<Position> engine() {
+        MonteCarloTreeSearch<Position> search = MCTSStrategy.createEngine();
+        search.setSeed(7);
+        return search;
+    }
+
+    // Checks that every expanded node has one child per move and that its visits are its children's plus its own
+    private static void checkTree(MctsNodeArena arena, int node, Position position, MoveList moves) {
+        int count = arena.getChildCount(node);
+        if (count == 0) {
+            return;
+        }
+        assertEquals(position.generateMoves(moves), count);
+        int childVisits = 0;
+        for (int i = 0; i < count; i++) {
+            int child = arena.getFirstChild(node) + i;
+            assertEquals(moves.get(i), arena.getMove(child));
+            childVisits += arena.getVisits(child);
+        }
+        for (int child = arena.getFirstChild(node); child < arena.getFirstChild(node) + count; child++) {
+            position.makeMove(arena.getMove(child));
+            checkTree(arena, child, position, moves);
+            position.undoMove();
+        }
+        // the one simulation that expanded a node ran from the node itself
+        assertTrue(arena.getVisits(node) - childVisits <= 1);
+    }
+
+    @Test
+    public void testExpandsOneChildPerMove() {
+        Position position = new Position();
+        String before = position.toString();
+        MonteCarloTreeSearch<Position> search = engine();
+        int root = search.search(position, 2000);
+        MctsNodeArena arena = search.getArena();
+        assertEquals(before, position.toString());
+        assertEquals(0, position.getPly());
+        assertEquals(2000, arena.getVisits(root));
+        assertEquals(2000, search.getSimulations());
+        assertEquals(4, arena.getChildCount(root));
+        checkTree(arena, root, position, new MoveList(Position.MAX_MOVES));
+        assertNotEquals(0, position.getLegalMoves() & (1L << search.getBestMove()));
+    }
+
+    @Test
+    public void testPassAndGameEndHandling() {
+        MonteCarloTreeSearch<Position> search = engine();
+        // black has no move, white can capture along the top row
+        Position pass = new Position(BitBoard.bit(0, 1), BitBoard.bit(0, 0), true);
+        int root = search.search(pass, 10);
+        MctsNodeArena arena = search.getArena();
+        assertEquals(1, arena.getChildCount(root));
+        assertEquals(Position.PASS, search.getBestMove());
+        assertEquals(10, arena.getVisits(arena.getFirstChild(root)));
+        // white wins after the pass, so the pass scores 0 for black
+        assertEquals(0, arena.getValueSum(arena.getFirstChild(root)));
+
+        Position over = new Position(BitBoard.bit(0, 0), 0, true);
+        root = search.search(over, 10);
+        assertEquals(0, arena.getChildCount(root));
+        assertEquals(10, arena.getVisits(root));
+        assertEquals(MonteCarloTreeSearch.NO_MOVE, search.getBestMove());
+    }
+
+    @Test
+    public void testReusesSubtreeOfReachedPosition() {
+        MonteCarloTreeSearch<Position> search = engine();
+        Position position = new Position();
+        int root = search.search(position, 3000);
+        MctsNodeArena arena = search.getArena();
+        int child = arena.getFirstChild(root) + 2;
+        int grandchild = arena.getFirstChild(child);
+        int visits = arena.getVisits(grandchild);
+        int children = arena.getChildCount(grandchild);
+        assertTrue(visits > 1);
+        position.makeMove(arena.getMove(child));
+        position.makeMove(arena.getMove(grandchild));
+
+        root = search.searchReusingTree(position, 500);
+        arena = search.getArena();
+        assertEquals(visits, search.getReusedVisits());
+        assertEquals(visits + 500, arena.getVisits(root));
+        assertEquals(children, arena.getChildCount(root));
+        assertEquals(2, position.getPly());
+        checkTree(arena, root, position, new MoveList(Position.MAX_MOVES));
+
+        // the same position again keeps the whole tree
+        root = search.searchReusingTree(position, 100);
+        assertEquals(visits + 500, search.getReusedVisits());
+        assertEquals(visits + 600, search.getArena().getVisits(root));
+
+        // a position the tree does not reach starts afresh
+        root = search.searchReusingTree(new Position(), 100);
+        assertEquals(0, search.getReusedVisits());
+        assertEquals(100, search.getArena().getVisits(root));
+    }
+
+    @Test
+    public void testFindsWinningMovesInEndgames() {
+        Random random = new Random(21);
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        EndgameSolver solver = new EndgameSolver();
+        MonteCarloTreeSearch<Position> search = engine();
+        int winnable = 0;
+        int won = 0;
+        while (winnable < 20) {
+            Position position = new Position();
+            while (position.getEmptyCount() > 8 && position.generateMoves(moves) > 0) {
+                position.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (position.isGameOver() || solver.solve(new Position(position), EndgameSolver.Mode.WIN_LOSS_DRAW) <= 0) {
+                continue;
+            }
+            winnable++;
+            search.search(position, 5000);
+            position.makeMove(search.getBestMove());
+            if (solver.solve(new Position(position), EndgameSolver.Mode.WIN_LOSS_DRAW) < 0) {
+                won++;
+            }
+        }
+        assertTrue(won >= 17, "kept the win in " + won + " of 20");
+    }
+
+    @Test
+    public void testFullArenaStopsGrowingTree() {
+        MonteCarloTreeSearch<Position> search = engine();
+        MctsNodeArena arena = new MctsNodeArena(1);
+        search.setArena(arena);
+        Position position = new Position();
+        int root = search.search(position, 50_000);
+        assertEquals(50_000, arena.getVisits(root));
+        assertTrue(arena.size() > arena.getCapacity() - Position.MAX_MOVES);
+        assertTrue(arena.size() <= arena.getCapacity());
+        checkTree(arena, root, position, new MoveList(Position.MAX_MOVES));
+        assertNotEquals(0, position.getLegalMoves() & (1L << search.getBestMove()));
+    }
+}
@@ -0,0 +1,34 @@
+package graph.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveListTest {
+
+    @Test
+    public void testAddGetAndClear() {
+        MoveList moves = new MoveList(4);
+        assertTrue(moves.isEmpty());
+        moves.add(19);
+        moves.add(26);
+        assertEquals(2, moves.size());
+        assertEquals(26, moves.get(1));
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.get(0));
+    }
+
+    @Test
+    public void testSwapAndIndexOf() {
+        MoveList moves = new MoveList(4);
+        moves.add(1);
+        moves.add(2);
+        moves.add(3);
+        moves.swap(0, 2);
+        assertEquals(3, moves.get(0));
+        assertEquals(1, moves.get(2));
+        assertEquals(2, moves.indexOf(1));
+        assertEquals(-1, moves.indexOf(9));
+    }
+}
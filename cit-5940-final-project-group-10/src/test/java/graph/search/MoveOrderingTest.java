@@ -0,0 +1,42 @@
+package graph.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveOrderingTest {
+
+    private static MoveList listOf(int... moves) {
+        MoveList list = new MoveList(moves.length);
+        for (int move : moves) {
+            list.add(move);
+        }
+        return list;
+    }
+
+    @Test
+    public void testTableMoveThenKillersThenHistory() {
+        MoveOrdering ordering = new MoveOrdering(10, 4);
+        ordering.recordCutoff(7, 1, 1);
+        ordering.recordCutoff(5, 1, 1);
+        ordering.recordCutoff(3, 2, 4);
+        MoveList moves = listOf(1, 3, 5, 7, 9);
+        ordering.order(moves, 1, 9);
+        assertEquals(9, moves.get(0));
+        assertEquals(5, moves.get(1));
+        assertEquals(7, moves.get(2));
+        assertEquals(3, moves.get(3));
+        assertEquals(1, moves.get(4));
+    }
+
+    @Test
+    public void testAgeHalvesHistoryAndClearsKillers() {
+        MoveOrdering ordering = new MoveOrdering(10, 4);
+        ordering.recordCutoff(4, 0, 3);
+        assertEquals(9, ordering.getHistory(4));
+        assertEquals(4, ordering.getKiller(0, 0));
+        ordering.age();
+        assertEquals(4, ordering.getHistory(4));
+        assertEquals(-1, ordering.getKiller(0, 0));
+    }
+}
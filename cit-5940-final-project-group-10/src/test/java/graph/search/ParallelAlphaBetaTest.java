@@ -0,0 +1,88 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelAlphaBetaTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    @Test
+    public void testMatchesSequentialSearch() {
+        Random random = new Random(31);
+        AlphaBeta<Position> sequential = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        try (ParallelAlphaBeta<Position> parallel =
+                     new ParallelAlphaBeta<>(EVALUATOR, Position.MAX_MOVES, null, 4)) {
+            parallel.setSplitDepth(2);
+            for (int i = 0; i < 10; i++) {
+                Position position = randomPosition(random, 4 + random.nextInt(40));
+                String before = position.toString();
+                double expected = sequential.search(position, 5);
+                assertEquals(expected, parallel.search(position, 5));
+                assertEquals(before, position.toString());
+
+                // the reported move must reach the value
+                position.makeMove(parallel.getBestMove());
+                assertEquals(expected, -sequential.search(position, 4));
+                position.undoMove();
+            }
+        }
+    }
+
+    @Test
+    public void testSharedTableKeepsScore() {
+        Random random = new Random(32);
+        AlphaBeta<Position> sequential = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        TranspositionTable table = new TranspositionTable(4);
+        try (ParallelAlphaBeta<Position> parallel =
+                     new ParallelAlphaBeta<>(EVALUATOR, Position.MAX_MOVES, table, 3)) {
+            parallel.setSplitDepth(2);
+            parallel.setEngineSetup(engine ->
+                    engine.setMoveOrdering(new MoveOrdering(Position.PASS + 1, AlphaBeta.MAX_PLY)));
+            for (int i = 0; i < 10; i++) {
+                Position position = randomPosition(random, 4 + random.nextInt(40));
+                table.newSearch();
+                assertEquals(sequential.search(position, 5), parallel.search(position, 5));
+            }
+            assertTrue(parallel.getNodes() > 0);
+        }
+    }
+
+    @Test
+    public void testFailLowSplitsKeepTableSound() {
+        // splitting at every node makes many split points fail low, and the table carries their bounds on
+        Random random = new Random(33);
+        AlphaBeta<Position> sequential = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        TranspositionTable table = new TranspositionTable(4);
+        try (ParallelAlphaBeta<Position> parallel =
+                     new ParallelAlphaBeta<>(EVALUATOR, Position.MAX_MOVES, table, 4)) {
+            parallel.setSplitDepth(1);
+            for (int i = 0; i < 100; i++) {
+                Position position = randomPosition(random, 10 + random.nextInt(30));
+                assertEquals(sequential.search(position, 6), parallel.search(position, 6), "position " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsNoThreads() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelAlphaBeta<>(EVALUATOR, Position.MAX_MOVES, null, 0));
+    }
+}
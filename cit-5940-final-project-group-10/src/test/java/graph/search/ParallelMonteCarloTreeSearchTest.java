@@ -0,0 +1,57 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.MCTSStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelMonteCarloTreeSearchTest {
+
+    // Checks that no virtual loss was left behind: every node has at least its children's visits and a sane score
+    private static void checkTree(MctsNodeArena arena, int node) {
+        int childVisits = 0;
+        int first = arena.getFirstChild(node);
+        for (int child = first; child < first + arena.getChildCount(node); child++) {
+            childVisits += arena.getVisits(child);
+            checkTree(arena, child);
+        }
+        assertTrue(arena.getVisits(node) >= childVisits);
+        assertTrue(arena.getValueSum(node) >= 0 && arena.getValueSum(node) <= arena.getVisits(node));
+    }
+
+    @Test
+    public void testSharedTreeCountsEverySimulation() {
+        for (int virtualLoss : new int[] {1, 3}) {
+            try (ParallelMonteCarloTreeSearch<Position> search =
+                         new ParallelMonteCarloTreeSearch<>(4, MCTSStrategy::createEngine)) {
+                search.setSeed(11);
+                search.setVirtualLoss(virtualLoss);
+                Position position = new Position();
+                String before = position.toString();
+                int root = search.search(position, 4000);
+                MctsNodeArena arena = search.getArena();
+                assertEquals(before, position.toString());
+                assertEquals(4000, arena.getVisits(root));
+                assertEquals(4000, search.getSimulations());
+                assertEquals(4, arena.getChildCount(root));
+                int childVisits = 0;
+                for (int i = 0; i < 4; i++) {
+                    childVisits += arena.getVisits(arena.getFirstChild(root) + i);
+                }
+                assertEquals(4000, childVisits);
+                checkTree(arena, root);
+                assertNotEquals(0, position.getLegalMoves() & (1L << search.getBestMove()));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelMonteCarloTreeSearch<>(0, MCTSStrategy::createEngine));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelMonteCarloTreeSearch<>(2, MCTSStrategy::createEngine, 0));
+        assertThrows(IllegalArgumentException.class, () -> MCTSStrategy.createEngine().setVirtualLoss(0));
+    }
+}
@@ -0,0 +1,106 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.WeightedEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbCutTest {
+    private static final WeightedEvaluator WEIGHTS = new WeightedEvaluator();
+    private static final ToDoubleFunction<Position> EVALUATOR =
+            p -> WEIGHTS.evaluate(p.getPlayerDiscs(), p.getOpponentDiscs());
+
+    private static Position randomPosition(Random random, int plies) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < plies && position.generateMoves(moves) > 0; i++) {
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return new Position(position);
+    }
+
+    // one model for every depth from 3 to 6, predicting the deep score as the shallow one
+    private static ProbCut<Position> identityModels(double sigma) {
+        ProbCut<Position> probCut = new ProbCut<>(2, 6, p -> p.getEmptyCount() > 30 ? 0 : 1);
+        for (int stage = 0; stage < 2; stage++) {
+            for (int depth = 3; depth <= 6; depth++) {
+                probCut.setModel(stage, depth, new ProbCut.Model(depth % 2 == 0 ? 2 : 1, 1, 0, sigma));
+            }
+        }
+        return probCut;
+    }
+
+    @Test
+    public void testFit() {
+        double[] shallow = {-10, 0, 10, 20};
+        double[] deep = {-18, 2, 22, 42};
+        ProbCut.Model model = ProbCut.Model.fit(1, shallow, deep);
+        assertEquals(2, model.slope(), 1e-9);
+        assertEquals(2, model.intercept(), 1e-9);
+        assertEquals(0, model.sigma(), 1e-9);
+
+        // no correlation gives no model
+        assertNull(ProbCut.Model.fit(1, new double[] {1, 1, 1}, new double[] {1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> new ProbCut.Model(1, -1, 0, 1));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        ProbCut<Position> probCut = identityModels(12.5);
+        StringWriter text = new StringWriter();
+        probCut.write(new PrintWriter(text));
+        ProbCut<Position> copy = ProbCut.read(new StringReader(text.toString()), 2, 6, p -> 0);
+        for (int stage = 0; stage < 2; stage++) {
+            for (int depth = 0; depth <= 6; depth++) {
+                assertEquals(probCut.getModel(stage, depth), copy.getModel(stage, depth));
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ProbCut.read(new StringReader("0 3 1 one 0 1"), 2, 6, p -> 0));
+        assertThrows(IllegalArgumentException.class, () -> probCut.setModel(0, 3, new ProbCut.Model(3, 1, 0, 1)));
+    }
+
+    @Test
+    public void testHighThresholdKeepsScore() {
+        Random random = new Random(51);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> selective = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        ProbCut<Position> probCut = identityModels(10);
+        probCut.setThreshold(1e9);
+        selective.setProbCut(probCut);
+        for (int i = 0; i < 10; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            assertEquals(plain.search(position, 5), selective.search(position, 5));
+        }
+        assertTrue(selective.getProbCutTries() > 0);
+        assertEquals(0, selective.getProbCuts());
+    }
+
+    @Test
+    public void testCutsSaveNodes() {
+        Random random = new Random(52);
+        AlphaBeta<Position> plain = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        AlphaBeta<Position> selective = new AlphaBeta<>(EVALUATOR, Position.MAX_MOVES);
+        selective.setProbCut(identityModels(0));
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int i = 0; i < 10; i++) {
+            Position position = randomPosition(random, 4 + random.nextInt(40));
+            String before = position.toString();
+            plain.search(position, 6);
+            selective.search(position, 6);
+            assertEquals(before, position.toString());
+            position.generateMoves(moves);
+            assertTrue(moves.indexOf(selective.getBestMove()) >= 0);
+        }
+        assertTrue(selective.getProbCuts() > 0);
+        assertTrue(selective.getNodes() < plain.getNodes());
+    }
+}
@@ -0,0 +1,68 @@
+package graph.search;
+
+import othello.gamelogic.Position;
+import othello.gamelogic.strategies.MCTSStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RootParallelMonteCarloTreeSearchTest {
+
+    @Test
+    public void testMergesRootVisitsOfEveryTree() {
+        try (RootParallelMonteCarloTreeSearch<Position> search =
+                     new RootParallelMonteCarloTreeSearch<>(3, MCTSStrategy::createEngine)) {
+            search.setSeed(5);
+            Position position = new Position();
+            String before = position.toString();
+            int move = search.search(position, 3001);
+            assertEquals(before, position.toString());
+            assertEquals(3001, search.getSimulations());
+
+            long total = 0;
+            long best = 0;
+            MoveList moves = new MoveList(Position.MAX_MOVES);
+            for (int i = 0; i < position.generateMoves(moves); i++) {
+                total += search.getMergedVisits(moves.get(i));
+                best = Math.max(best, search.getMergedVisits(moves.get(i)));
+            }
+            assertEquals(3001, total);
+            assertEquals(best, search.getMergedVisits(move));
+            assertEquals(move, search.getBestMove());
+            assertEquals(0, search.getMergedVisits(0));
+        }
+    }
+
+    @Test
+    public void testSeededSearchRepeats() {
+        try (RootParallelMonteCarloTreeSearch<Position> first =
+                     new RootParallelMonteCarloTreeSearch<>(2, MCTSStrategy::createEngine);
+             RootParallelMonteCarloTreeSearch<Position> second =
+                     new RootParallelMonteCarloTreeSearch<>(2, MCTSStrategy::createEngine)) {
+            first.setSeed(9);
+            second.setSeed(9);
+            Position position = new Position();
+            position.makeMove(Long.numberOfTrailingZeros(position.getLegalMoves()));
+            int move = first.search(position, 2000);
+            assertEquals(move, second.search(position, 2000));
+            assertEquals(first.getMergedVisits(move), second.getMergedVisits(move));
+        }
+    }
+
+    @Test
+    public void testStopsAtDeadline() {
+        try (RootParallelMonteCarloTreeSearch<Position> search =
+                     new RootParallelMonteCarloTreeSearch<>(2, MCTSStrategy::createEngine)) {
+            long start = System.nanoTime();
+            search.setDeadline(start + 20_000_000);
+            int move = search.search(new Position(), Integer.MAX_VALUE);
+            assertNotEquals(MonteCarloTreeSearch.NO_MOVE, move);
+            // generous slack for slow test machines, the point is that the deadline ends the search
+            assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RootParallelMonteCarloTreeSearch<>(0, MCTSStrategy::createEngine));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RootParallelMonteCarloTreeSearch<>(2, MCTSStrategy::createEngine, 0));
+        }
+    }
+}
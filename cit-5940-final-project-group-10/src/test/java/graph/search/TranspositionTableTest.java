@@ -0,0 +1,111 @@
+package graph.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testCapacityIsPowerOfTwoWithinBudget() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    public void testStoreAndProbeRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9abc_def0L;
+        table.store(key, 7, TranspositionTable.LOWER, -125.0, 42);
+
+        long data = table.probe(key);
+        assertNotEquals(0, data);
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(-125.0, TranspositionTable.score(data));
+        assertEquals(42, TranspositionTable.move(data));
+        assertEquals(0, table.probe(key ^ 1));
+        assertEquals(0.5, table.getHitRate());
+    }
+
+    @Test
+    public void testScoresThatDoNotFitAFloatStayBounds() {
+        TranspositionTable table = new TranspositionTable(1);
+        double score = 0.1;
+        table.store(1L << 32, 4, TranspositionTable.LOWER, score, 1);
+        table.store(2L << 32, 4, TranspositionTable.UPPER, score, 1);
+        table.store(3L << 32, 4, TranspositionTable.EXACT, score, 1);
+        table.store(4L << 32, 4, TranspositionTable.EXACT, -12.5, 1);
+
+        long lower = table.probe(1L << 32);
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(lower));
+        assertTrue(TranspositionTable.score(lower) <= score);
+        long upper = table.probe(2L << 32);
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(upper));
+        assertTrue(TranspositionTable.score(upper) >= score);
+        // an exact score that can't be kept exactly is only a lower bound
+        long exact = table.probe(3L << 32);
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(exact));
+        assertTrue(TranspositionTable.score(exact) <= score);
+        // scores that fit are kept exactly
+        long fits = table.probe(4L << 32);
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.bound(fits));
+        assertEquals(-12.5, TranspositionTable.score(fits));
+    }
+
+    @Test
+    public void testDepthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x0000_0001_0000_0000L;
+        long collision = key | 0xFFFF; // same slot, different key
+        table.store(key, 6, TranspositionTable.EXACT, 10, 3);
+        table.store(collision, 2, TranspositionTable.EXACT, 20, 4);
+        assertNotEquals(0, table.probe(key), "Shallower entry must not evict a deeper one");
+        assertEquals(0, table.probe(collision));
+
+        table.newSearch();
+        table.store(collision, 2, TranspositionTable.EXACT, 20, 4);
+        assertEquals(0, table.probe(key), "Entries from an older search are replaceable");
+        assertNotEquals(0, table.probe(collision));
+    }
+
+    @Test
+    public void testStoreWithoutMoveKeepsKnownMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(99L << 32, 1, TranspositionTable.UPPER, 0, 17);
+        table.store(99L << 32, 3, TranspositionTable.UPPER, 5, TranspositionTable.NO_MOVE);
+        assertEquals(17, TranspositionTable.move(table.probe(99L << 32)));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverProduceMismatchedEntries() throws InterruptedException {
+        // every writer stores data derived from its key, so a torn read would show up as a mismatch
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicBoolean corrupted = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextLong() & 0x0000_00FF_FFFF_FFFFL;
+                    int expected = (int) (key & 0x7F);
+                    long data = table.probe(key);
+                    if (data != 0 && TranspositionTable.move(data) != expected) {
+                        corrupted.set(true);
+                    }
+                    table.store(key, expected & 0x3F, TranspositionTable.EXACT, expected, expected);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(corrupted.get());
+    }
+}
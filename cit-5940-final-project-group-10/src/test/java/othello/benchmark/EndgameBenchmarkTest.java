@@ -0,0 +1,69 @@
+package othello.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameBenchmarkTest {
+    private static final String SUITE = """
+            # two small positions
+            XXXOOO-XOXXOOOX--XOXXXXXXXXOXXOXXOOOXOOXXOOOOOOX--OOOOOO---OOO-- X 38 sp-01
+
+            -XXXXXXX-XXO-OXXXXOXOXXXXXOOXOXOOOXXOXOO-OXOXOXO--O-OOOO-OOO-O-O X 20
+            """;
+
+    @Test
+    public void testParse() throws IOException {
+        List<EndgameBenchmark.TestPosition> suite = EndgameBenchmark.parse(new StringReader(SUITE));
+        assertEquals(2, suite.size());
+        assertEquals("sp-01", suite.get(0).name());
+        assertEquals(38, suite.get(0).expected());
+        assertEquals(10, suite.get(0).position().getEmptyCount());
+        assertEquals("#4", suite.get(1).name());
+        assertEquals(20, suite.get(1).expected());
+    }
+
+    @Test
+    public void testParseRejectsMalformedLines() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> EndgameBenchmark.parse(new StringReader("# header\n---- X\n")));
+        assertTrue(e.getMessage().startsWith("Line 2"));
+        assertThrows(IllegalArgumentException.class, () -> EndgameBenchmark.parse(new StringReader(
+                "XXXOOO-XOXXOOOX--XOXXXXXXXXOXXOXXOOOXOOXXOOOOOOX--OOOOOO---OOO-- X many")));
+    }
+
+    @Test
+    public void testEnginesSolveSuite() throws IOException {
+        List<EndgameBenchmark.TestPosition> suite = EndgameBenchmark.parse(new StringReader(SUITE));
+        for (EndgameBenchmark.Engine engine : EndgameBenchmark.Engine.values()) {
+            for (EndgameBenchmark.Result result : EndgameBenchmark.run(suite, engine)) {
+                assertTrue(result.correct(), engine + " " + result.test().name() + " scored " + result.score());
+                assertTrue(result.nodes() > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBundledSuiteLoads() throws IOException {
+        List<EndgameBenchmark.TestPosition> suite = EndgameBenchmark.bundledSuite();
+        assertFalse(suite.isEmpty());
+        for (EndgameBenchmark.TestPosition test : suite) {
+            assertFalse(test.position().isGameOver(), test.name());
+        }
+    }
+
+    @Test
+    public void testGenerateMatchesSolver() {
+        List<EndgameBenchmark.TestPosition> suite = EndgameBenchmark.generate(3, 8, 10, 1);
+        assertEquals(3, suite.size());
+        for (EndgameBenchmark.Result result : EndgameBenchmark.run(suite, EndgameBenchmark.Engine.ALPHA_BETA)) {
+            assertTrue(result.correct(), result.test().name());
+            int empties = result.test().position().getEmptyCount();
+            assertTrue(empties >= 8 && empties <= 10);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package othello.benchmark;
+
+import org.junit.jupiter.api.Test;
+import othello.gamelogic.BitBoard;
+import othello.gamelogic.Position;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    @Test
+    public void testStartPositionReferenceCounts() {
+        for (int depth = 0; depth <= 8; depth++) {
+            assertEquals(Perft.START_COUNTS[depth], Perft.perft(new Position(), depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSingleThreaded() {
+        assertEquals(Perft.START_COUNTS[8], Perft.perftParallel(new Position(), 8, 4));
+    }
+
+    @Test
+    public void testPerftRestoresPosition() {
+        Position position = new Position();
+        String before = position.toString();
+        Perft.perft(position, 6);
+        assertEquals(before, position.toString());
+        assertEquals(0, position.getPly());
+    }
+
+    @Test
+    public void testPassAndGameEndHandling() {
+        // black cannot move and must pass, white then plays the only move and the game ends
+        Position position = Position.parse("OOX------------------------------------------------------------- X");
+        assertEquals(0, position.getLegalMoves());
+        assertEquals(1, Perft.perft(position, 1));
+        assertEquals(1, Perft.perft(position, 2));
+        assertEquals(1, Perft.perft(position, 3));
+        assertEquals(1, Perft.perft(position, 6));
+    }
+
+    @Test
+    public void testParseRoundTrip() {
+        Position position = new Position();
+        position.makeMove(BitBoard.square(2, 3));
+        Position parsed = Position.parse(position.toString());
+        assertEquals(position.getKey(), parsed.getKey());
+        assertThrows(IllegalArgumentException.class, () -> Position.parse("XO X"));
+    }
+}
@@ -0,0 +1,136 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitBoardTest {
+
+    private static final int[] DX = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DY = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    // Reference ray walk, the way moves were generated before bitboards
+    private static long referenceFlips(long player, long opponent, int x, int y) {
+        long flipped = 0;
+        for (int d = 0; d < 8; d++) {
+            long line = 0;
+            int i = x + DX[d];
+            int j = y + DY[d];
+            while (OthelloGame.inBounds(i, j) && (opponent & BitBoard.bit(i, j)) != 0) {
+                line |= BitBoard.bit(i, j);
+                i += DX[d];
+                j += DY[d];
+            }
+            if (line != 0 && OthelloGame.inBounds(i, j) && (player & BitBoard.bit(i, j)) != 0) {
+                flipped |= line;
+            }
+        }
+        return flipped;
+    }
+
+    private static long referenceMoves(long player, long opponent) {
+        long moves = 0;
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                long bit = BitBoard.bit(x, y);
+                if (((player | opponent) & bit) == 0 && referenceFlips(player, opponent, x, y) != 0) {
+                    moves |= bit;
+                }
+            }
+        }
+        return moves;
+    }
+
+    @Test
+    public void testStartPositionMoves() {
+        long moves = BitBoard.legalMoves(BitBoard.START_BLACK, BitBoard.START_WHITE);
+        assertEquals(4, Long.bitCount(moves));
+        assertEquals(BitBoard.bit(2, 3) | BitBoard.bit(3, 2) | BitBoard.bit(4, 5) | BitBoard.bit(5, 4), moves);
+    }
+
+    @Test
+    public void testSquareCoordinatesRoundTrip() {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            assertEquals(square, BitBoard.square(BitBoard.squareX(square), BitBoard.squareY(square)));
+        }
+    }
+
+    @Test
+    public void testMovesAndFlipsMatchReferenceOnRandomGames() {
+        Random random = new Random(5940);
+        for (int game = 0; game < 200; game++) {
+            long player = BitBoard.START_BLACK;
+            long opponent = BitBoard.START_WHITE;
+            int passes = 0;
+            while (passes < 2) {
+                long moves = BitBoard.legalMoves(player, opponent);
+                assertEquals(referenceMoves(player, opponent), moves);
+                if (moves == 0) {
+                    passes++;
+                } else {
+                    passes = 0;
+                    for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                        moves &= moves - 1;
+                    }
+                    int square = Long.numberOfTrailingZeros(moves);
+                    long flipped = BitBoard.flips(player, opponent, square);
+                    assertEquals(referenceFlips(player, opponent, BitBoard.squareX(square), BitBoard.squareY(square)), flipped);
+                    player |= flipped | (1L << square);
+                    opponent &= ~flipped;
+                }
+                long swap = player;
+                player = opponent;
+                opponent = swap;
+            }
+        }
+    }
+
+    @Test
+    public void testBoardViewRoundTrip() {
+        BoardSpace[][] board = BitBoard.toBoard(BitBoard.START_BLACK, BitBoard.START_WHITE);
+        assertEquals(BoardSpace.SpaceType.WHITE, board[3][3].getType());
+        assertEquals(BoardSpace.SpaceType.BLACK, board[4][3].getType());
+        assertEquals(BitBoard.START_BLACK, BitBoard.fromBoard(board, BoardSpace.SpaceType.BLACK));
+        assertEquals(BitBoard.START_WHITE, BitBoard.fromBoard(board, BoardSpace.SpaceType.WHITE));
+    }
+
+    @Test
+    public void testGameTakeSpacesFlipsLine() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        black.setColor(BoardSpace.SpaceType.BLACK);
+        white.setColor(BoardSpace.SpaceType.WHITE);
+        OthelloGame game = new OthelloGame(black, white);
+
+        Map<BoardSpace, List<BoardSpace>> moves = game.getAvailableMoves(black);
+        assertEquals(4, moves.size());
+        BoardSpace destination = game.getBoard()[2][3];
+        assertEquals(List.of(game.getBoard()[4][3]), moves.get(destination));
+
+        game.takeSpaces(black, white, moves, destination);
+        assertEquals(BoardSpace.SpaceType.BLACK, game.getBoard()[3][3].getType());
+        assertEquals(4, black.getPlayerOwnedSpaces().size());
+        assertEquals(1, white.getPlayerOwnedSpaces().size());
+        assertEquals(BitBoard.fromBoard(game.getBoard(), BoardSpace.SpaceType.BLACK), game.getDiscs(BoardSpace.SpaceType.BLACK));
+    }
+
+    @Test
+    public void testGameStateApplyMoveFlips() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        black.setColor(BoardSpace.SpaceType.BLACK);
+        white.setColor(BoardSpace.SpaceType.WHITE);
+        GameState state = new GameState(BitBoard.START_BLACK, BitBoard.START_WHITE, black, white);
+
+        GameState next = state.applyMove(BoardSpace.of(2, 3, BoardSpace.SpaceType.EMPTY));
+        assertSame(white, next.getCurrentPlayer());
+        assertEquals(4, Long.bitCount(next.getDiscs(BoardSpace.SpaceType.BLACK)));
+        assertEquals(1, Long.bitCount(next.getDiscs(BoardSpace.SpaceType.WHITE)));
+        assertSame(state, state.applyMove(0));
+        assertFalse(next.isGameOver());
+    }
+}
@@ -0,0 +1,33 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardSpaceTest {
+
+    @Test
+    public void testSpacesAreInterned() {
+        assertSame(BoardSpace.of(2, 3, BoardSpace.SpaceType.EMPTY), BoardSpace.of(2, 3, BoardSpace.SpaceType.EMPTY));
+        assertSame(BoardSpace.of(2, 3, BoardSpace.SpaceType.BLACK), BoardSpace.of(BitBoard.square(2, 3), BoardSpace.SpaceType.BLACK));
+        assertNotSame(BoardSpace.of(2, 3, BoardSpace.SpaceType.BLACK), BoardSpace.of(2, 3, BoardSpace.SpaceType.WHITE));
+    }
+
+    @Test
+    public void testSquareRoundTrip() {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            BoardSpace space = BoardSpace.of(square, BoardSpace.SpaceType.EMPTY);
+            assertEquals(square, space.getSquare());
+            assertEquals(BitBoard.squareX(square), space.getX());
+            assertEquals(BitBoard.squareY(square), space.getY());
+        }
+    }
+
+    @Test
+    public void testGameBoardUsesInternedSpaces() {
+        OthelloGame game = new OthelloGame(new HumanPlayer(), new HumanPlayer());
+        BoardSpace[][] board = game.getBoard();
+        assertSame(BoardSpace.of(3, 3, BoardSpace.SpaceType.WHITE), board[3][3]);
+        assertSame(BoardSpace.of(0, 0, BoardSpace.SpaceType.EMPTY), board[0][0]);
+    }
+}
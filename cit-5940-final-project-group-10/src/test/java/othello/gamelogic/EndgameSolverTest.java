@@ -0,0 +1,90 @@
+package othello.gamelogic;
+
+import graph.search.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+
+    // Plays random moves until the given number of empties is left, or null if the game ends first
+    private static Position randomEndgame(Random random, int empties) {
+        Position position = new Position();
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        while (position.getEmptyCount() > empties) {
+            if (position.generateMoves(moves) == 0) {
+                return null;
+            }
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        return position.isGameOver() ? null : new Position(position);
+    }
+
+    // Plain negamax over every line of play
+    private static int bruteForce(Position position) {
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        if (position.generateMoves(moves) == 0) {
+            return position.getFinalScore();
+        }
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            position.makeMove(moves.get(i));
+            best = Math.max(best, -bruteForce(position));
+            position.undoMove();
+        }
+        return best;
+    }
+
+    @Test
+    public void testExactMatchesBruteForce() {
+        Random random = new Random(71);
+        EndgameSolver solver = new EndgameSolver();
+        int solved = 0;
+        while (solved < 40) {
+            Position position = randomEndgame(random, 1 + random.nextInt(9));
+            if (position == null) {
+                continue;
+            }
+            int expected = bruteForce(position);
+            assertEquals(expected, solver.solve(position, EndgameSolver.Mode.EXACT), position.toString());
+            assertEquals(Integer.signum(expected), solver.solve(position, EndgameSolver.Mode.WIN_LOSS_DRAW));
+            solved++;
+        }
+    }
+
+    @Test
+    public void testBestMoveReachesScore() {
+        Random random = new Random(72);
+        EndgameSolver solver = new EndgameSolver();
+        int solved = 0;
+        while (solved < 20) {
+            Position position = randomEndgame(random, 10 + random.nextInt(5));
+            if (position == null) {
+                continue;
+            }
+            int score = solver.solve(position, EndgameSolver.Mode.EXACT);
+            int move = solver.getBestMove();
+            position.makeMove(move);
+            assertEquals(score, -solver.solve(position, EndgameSolver.Mode.EXACT), position.toString());
+            solved++;
+        }
+    }
+
+    @Test
+    public void testPassAndGameOver() {
+        // black to move on a board black has already won, with no legal moves for either side
+        Position finished = Position.parse("X".repeat(60) + "----" + " X");
+        EndgameSolver solver = new EndgameSolver();
+        assertEquals(64, solver.solve(finished, EndgameSolver.Mode.EXACT));
+        assertEquals(EndgameSolver.NO_MOVE, solver.getBestMove());
+
+        // white has no move but black does: white passes, and black takes both discs
+        Position pass = Position.parse("XXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXO-X O");
+        assertEquals(0, Long.bitCount(pass.getLegalMoves()));
+        int score = solver.solve(pass, EndgameSolver.Mode.EXACT);
+        assertEquals(Position.PASS, solver.getBestMove());
+        assertEquals(-64, score);
+    }
+}
@@ -0,0 +1,58 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerTest {
+
+    @Test
+    public void testClaimAndReleaseTrackCount() {
+        Player player = new HumanPlayer();
+        player.setColor(BoardSpace.SpaceType.BLACK);
+        player.claimSpace(0, 0);
+        player.claimSpace(7, 7);
+        player.claimSpace(7, 7);
+        assertEquals(2, player.getOwnedCount());
+        assertTrue(player.owns(7, 7));
+
+        player.releaseSpace(0, 0);
+        player.releaseSpace(0, 0);
+        assertEquals(1, player.getOwnedCount());
+        assertEquals(BitBoard.bit(7, 7), player.getOwnedSquares());
+    }
+
+    @Test
+    public void testOwnedSpacesViewIsReadOnly() {
+        Player player = new HumanPlayer();
+        player.setColor(BoardSpace.SpaceType.WHITE);
+        player.claimSpace(2, 5);
+        player.claimSpace(1, 3);
+
+        List<BoardSpace> owned = player.getPlayerOwnedSpaces();
+        assertEquals(2, owned.size());
+        assertEquals(1, owned.get(0).getX());
+        assertEquals(BoardSpace.SpaceType.WHITE, owned.get(1).getType());
+        assertTrue(owned.contains(BoardSpace.of(2, 5, BoardSpace.SpaceType.EMPTY)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> owned.add(BoardSpace.of(0, 0, BoardSpace.SpaceType.WHITE)));
+        assertThrows(IndexOutOfBoundsException.class, () -> owned.get(2));
+    }
+
+    @Test
+    public void testGameKeepsOwnershipInStepWithBoard() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        black.setColor(BoardSpace.SpaceType.BLACK);
+        white.setColor(BoardSpace.SpaceType.WHITE);
+        OthelloGame game = new OthelloGame(black, white);
+        game.takeSpaces(black, white, game.getAvailableMoves(black), game.getBoard()[5][4]);
+        game.takeSpaces(white, black, game.getAvailableMoves(white), game.getBoard()[5][5]);
+
+        assertEquals(game.getDiscs(BoardSpace.SpaceType.BLACK), black.getOwnedSquares());
+        assertEquals(game.getDiscs(BoardSpace.SpaceType.WHITE), white.getOwnedSquares());
+        assertEquals(6, black.getOwnedCount() + white.getOwnedCount());
+    }
+}
@@ -0,0 +1,124 @@
+package othello.gamelogic;
+
+import graph.search.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    @Test
+    public void testStartPosition() {
+        Position position = new Position();
+        assertTrue(position.isBlackToMove());
+        assertEquals(BitBoard.START_BLACK, position.getDiscs(BoardSpace.SpaceType.BLACK));
+        assertEquals(BitBoard.START_WHITE, position.getDiscs(BoardSpace.SpaceType.WHITE));
+        assertEquals(60, position.getEmptyCount());
+        assertEquals(4, Long.bitCount(position.getLegalMoves()));
+    }
+
+    @Test
+    public void testMakeMoveFlipsAndSwapsSide() {
+        Position position = new Position();
+        position.makeMove(BitBoard.square(2, 3));
+        assertFalse(position.isBlackToMove());
+        assertEquals(4, Long.bitCount(position.getDiscs(BoardSpace.SpaceType.BLACK)));
+        assertEquals(BitBoard.bit(4, 4), position.getDiscs(BoardSpace.SpaceType.WHITE));
+        assertEquals(BitBoard.square(2, 3), position.getLastMove());
+    }
+
+    @Test
+    public void testUndoRestoresEveryPositionOfRandomGames() {
+        Random random = new Random(42);
+        for (int game = 0; game < 100; game++) {
+            Position position = new Position();
+            long[] black = new long[128];
+            long[] white = new long[128];
+            boolean[] side = new boolean[128];
+            while (!position.isGameOver()) {
+                int ply = position.getPly();
+                black[ply] = position.getDiscs(BoardSpace.SpaceType.BLACK);
+                white[ply] = position.getDiscs(BoardSpace.SpaceType.WHITE);
+                side[ply] = position.isBlackToMove();
+
+                long moves = position.getLegalMoves();
+                if (moves == 0) {
+                    position.makeMove(Position.PASS);
+                    continue;
+                }
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                    moves &= moves - 1;
+                }
+                position.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+            while (position.getPly() > 0) {
+                position.undoMove();
+                int ply = position.getPly();
+                assertEquals(black[ply], position.getDiscs(BoardSpace.SpaceType.BLACK));
+                assertEquals(white[ply], position.getDiscs(BoardSpace.SpaceType.WHITE));
+                assertEquals(side[ply], position.isBlackToMove());
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesGameStateApplyMove() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        black.setColor(BoardSpace.SpaceType.BLACK);
+        white.setColor(BoardSpace.SpaceType.WHITE);
+        GameState state = new GameState(BitBoard.START_BLACK, BitBoard.START_WHITE, black, white);
+        Position position = new Position(state);
+
+        int square = BitBoard.square(5, 4);
+        GameState next = state.applyMove(square);
+        position.makeMove(square);
+        assertEquals(next.getDiscs(BoardSpace.SpaceType.BLACK), position.getDiscs(BoardSpace.SpaceType.BLACK));
+        assertEquals(next.getDiscs(BoardSpace.SpaceType.WHITE), position.getDiscs(BoardSpace.SpaceType.WHITE));
+    }
+
+    @Test
+    public void testUndoWithoutMoveThrows() {
+        assertThrows(IllegalStateException.class, () -> new Position().undoMove());
+    }
+
+    @Test
+    public void testGenerateMoves() {
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        assertEquals(4, new Position().generateMoves(moves));
+        for (int i = 0; i < moves.size(); i++) {
+            assertNotEquals(0, new Position().getLegalMoves() & (1L << moves.get(i)));
+        }
+
+        // black has no move, white can capture along the top row
+        Position pass = new Position(BitBoard.bit(0, 1), BitBoard.bit(0, 0), true);
+        assertEquals(1, pass.generateMoves(moves));
+        assertEquals(Position.PASS, moves.get(0));
+
+        Position over = new Position(BitBoard.bit(0, 0), 0, true);
+        assertEquals(0, over.generateMoves(moves));
+    }
+
+    @Test
+    public void testPlayRandomGameMatchesMoveByMoveReplay() {
+        MoveList moves = new MoveList(Position.MAX_MOVES);
+        for (int game = 0; game < 50; game++) {
+            Position start = new Position();
+            String before = start.toString();
+            int margin = start.playRandomGame(new SplittableRandom(game));
+            assertEquals(before, start.toString());
+
+            // the same choices from the same seed: moves come in square order and a pass uses no random number
+            SplittableRandom random = new SplittableRandom(game);
+            Position replay = new Position();
+            while (replay.generateMoves(moves) > 0) {
+                replay.makeMove(moves.get(0) == Position.PASS ? Position.PASS : moves.get(random.nextInt(moves.size())));
+            }
+            int expected = replay.getPly() % 2 == 0 ? replay.getFinalScore() : -replay.getFinalScore();
+            assertEquals(expected, margin, "game " + game);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymmetryTest {
+
+    // Applies a transform square by square, the slow way
+    private static long slowTransform(long discs, int transform) {
+        long result = 0;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if ((discs & (1L << square)) != 0) {
+                result |= 1L << Symmetry.transformSquare(square, transform);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testBitboardTransformsMatchSquareTransforms() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            long discs = random.nextLong();
+            for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+                assertEquals(slowTransform(discs, t), Symmetry.transform(discs, t), "transform " + t);
+            }
+        }
+    }
+
+    @Test
+    public void testTransformsAreDistinctAndInvertible() {
+        Set<Long> images = new HashSet<>();
+        long marker = BitBoard.bit(0, 1);
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+            images.add(Symmetry.transform(marker, t));
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                int mapped = Symmetry.transformSquare(square, t);
+                assertEquals(square, Symmetry.transformSquare(mapped, Symmetry.inverse(t)));
+            }
+        }
+        assertEquals(Symmetry.TRANSFORMS, images.size());
+        assertEquals(Position.PASS, Symmetry.transformSquare(Position.PASS, 5));
+    }
+
+    @Test
+    public void testSymmetricPositionsShareCanonicalKey() {
+        Position position = new Position();
+        position.makeMove(BitBoard.square(2, 3));
+        position.makeMove(BitBoard.square(2, 2));
+        long black = position.getDiscs(BoardSpace.SpaceType.BLACK);
+        long white = position.getDiscs(BoardSpace.SpaceType.WHITE);
+        long key = position.getCanonicalKey();
+        for (int t = 0; t < Symmetry.TRANSFORMS; t++) {
+            Position variant = new Position(Symmetry.transform(black, t), Symmetry.transform(white, t), true);
+            assertEquals(key, variant.getCanonicalKey());
+        }
+        assertNotEquals(key, new Position(black, white, false).getCanonicalKey());
+    }
+
+    @Test
+    public void testMovesMapBackFromCanonicalOrientation() {
+        Position position = new Position();
+        position.makeMove(BitBoard.square(5, 4));
+        long player = position.getPlayerDiscs();
+        long opponent = position.getOpponentDiscs();
+        int t = Symmetry.canonicalTransform(position.getDiscs(BoardSpace.SpaceType.BLACK),
+                position.getDiscs(BoardSpace.SpaceType.WHITE));
+
+        long canonicalMoves = BitBoard.legalMoves(Symmetry.transform(player, t), Symmetry.transform(opponent, t));
+        long mappedBack = 0;
+        for (long moves = canonicalMoves; moves != 0; moves &= moves - 1) {
+            int move = Long.numberOfTrailingZeros(moves);
+            mappedBack |= 1L << Symmetry.transformSquare(move, Symmetry.inverse(t));
+        }
+        assertEquals(position.getLegalMoves(), mappedBack);
+    }
+}
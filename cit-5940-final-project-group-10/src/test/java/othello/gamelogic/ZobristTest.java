@@ -0,0 +1,63 @@
+package othello.gamelogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+
+    private static long scratchKey(Position position) {
+        return Zobrist.hash(position.getDiscs(BoardSpace.SpaceType.BLACK),
+                position.getDiscs(BoardSpace.SpaceType.WHITE), position.isBlackToMove());
+    }
+
+    @Test
+    public void testSideToMoveChangesKey() {
+        assertNotEquals(Zobrist.hash(BitBoard.START_BLACK, BitBoard.START_WHITE, true),
+                Zobrist.hash(BitBoard.START_BLACK, BitBoard.START_WHITE, false));
+    }
+
+    @Test
+    public void testIncrementalKeyMatchesScratchKey() {
+        Random random = new Random(7);
+        for (int game = 0; game < 100; game++) {
+            Position position = new Position();
+            long[] keys = new long[128];
+            while (!position.isGameOver()) {
+                assertEquals(scratchKey(position), position.getKey());
+                keys[position.getPly()] = position.getKey();
+                long moves = position.getLegalMoves();
+                if (moves == 0) {
+                    position.makeMove(Position.PASS);
+                    continue;
+                }
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                    moves &= moves - 1;
+                }
+                position.makeMove(Long.numberOfTrailingZeros(moves));
+            }
+            assertEquals(scratchKey(position), position.getKey());
+            while (position.getPly() > 0) {
+                position.undoMove();
+                assertEquals(keys[position.getPly()], position.getKey());
+            }
+        }
+    }
+
+    @Test
+    public void testTranspositionsShareKey() {
+        // d3 c5 and c5 d3 style transposition: two move orders reaching the same position
+        Position first = new Position();
+        first.makeMove(BitBoard.square(2, 3));
+        first.makeMove(BitBoard.square(2, 2));
+        first.makeMove(BitBoard.square(3, 2));
+        Position second = new Position();
+        second.makeMove(BitBoard.square(3, 2));
+        second.makeMove(BitBoard.square(2, 2));
+        second.makeMove(BitBoard.square(2, 3));
+        assertEquals(first.getDiscs(BoardSpace.SpaceType.BLACK), second.getDiscs(BoardSpace.SpaceType.BLACK));
+        assertEquals(first.getKey(), second.getKey());
+    }
+}
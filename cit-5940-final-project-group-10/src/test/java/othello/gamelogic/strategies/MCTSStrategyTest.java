@@ -0,0 +1,104 @@
+package othello.gamelogic.strategies;
+
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.HumanPlayer;
+import othello.gamelogic.OthelloGame;
+import othello.gamelogic.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MCTSStrategyTest {
+
+    @Test
+    public void testPlaysLegalMove() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MCTSStrategy strategy = new MCTSStrategy();
+        strategy.setSimulationCount(500);
+        strategy.setSeed(1);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(game.getAvailableMoves(black).containsKey(move));
+        assertEquals(500, strategy.getSimulations());
+    }
+
+    @Test
+    public void testTreeParallelThreads() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MCTSStrategy strategy = new MCTSStrategy();
+        strategy.setSimulationCount(2000);
+        strategy.setThreads(3);
+        assertEquals(3, strategy.getThreads());
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(game.getAvailableMoves(black).containsKey(move));
+        assertEquals(2000, strategy.getSimulations());
+        strategy.setThreads(1);
+    }
+
+    @Test
+    public void testRootParallelWithinTimeBudget() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MCTSStrategy strategy = new MCTSStrategy();
+        strategy.setParallelism(MCTSStrategy.Parallelism.ROOT);
+        strategy.setThreads(2);
+        strategy.setSimulationCount(Integer.MAX_VALUE);
+        strategy.setTimeBudget(50);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(game.getAvailableMoves(black).containsKey(move));
+        assertTrue(strategy.getSimulations() > 0);
+        // generous slack for slow test machines, the point is that the budget ends the search
+        assertTrue(strategy.getTimeUsedMillis() < 1000, "took " + strategy.getTimeUsedMillis() + " ms");
+        strategy.setThreads(1);
+    }
+
+    @Test
+    public void testKeepsTreeAfterOpponentReply() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        black.setColor(BoardSpace.SpaceType.BLACK);
+        white.setColor(BoardSpace.SpaceType.WHITE);
+        OthelloGame game = new OthelloGame(black, white);
+        MCTSStrategy strategy = new MCTSStrategy();
+        assertTrue(strategy.isTreeReuse());
+        strategy.setSimulationCount(2000);
+        strategy.setSeed(3);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertEquals(0, strategy.getReusedVisits());
+        game.takeSpaces(black, white, game.getAvailableMoves(black), move);
+        BoardSpace reply = game.getAvailableMoves(white).keySet().iterator().next();
+        game.takeSpaces(white, black, game.getAvailableMoves(white), reply);
+
+        move = strategy.getBestMove(game, black, white);
+        assertTrue(game.getAvailableMoves(black).containsKey(move));
+        assertTrue(strategy.getReusedVisits() > 0);
+        assertEquals(2000, strategy.getSimulations());
+
+        strategy.setTreeReuse(false);
+        strategy.getBestMove(game, black, white);
+        assertEquals(0, strategy.getReusedVisits());
+    }
+
+    @Test
+    public void testSizesArenaFromSimulationBudget() {
+        MCTSStrategy strategy = new MCTSStrategy();
+        assertEquals(1, strategy.getArenaMegabytes());
+        strategy.setSimulationCount(100_000);
+        assertEquals(19, strategy.getArenaMegabytes());
+        strategy.setSimulationCount(Integer.MAX_VALUE);
+        assertEquals(MCTSStrategy.MAX_ARENA_MB, strategy.getArenaMegabytes());
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        MCTSStrategy strategy = new MCTSStrategy();
+        assertThrows(IllegalArgumentException.class, () -> strategy.setSimulationCount(0));
+        assertThrows(IllegalArgumentException.class, () -> strategy.setThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> strategy.setTimeBudget(-1));
+        assertEquals(MCTSStrategy.DEFAULT_SIMULATIONS, strategy.getSimulationCount());
+    }
+}
@@ -0,0 +1,94 @@
+package othello.gamelogic.strategies;
+
+import othello.gamelogic.BoardSpace;
+import othello.gamelogic.HumanPlayer;
+import othello.gamelogic.OthelloGame;
+import othello.gamelogic.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinimaxStrategyTest {
+
+    private static boolean isLegal(OthelloGame game, Player player, BoardSpace move) {
+        return game.getAvailableMoves(player).containsKey(move);
+    }
+
+    @Test
+    public void testReachesMaxDepthWithoutBudget() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MinimaxStrategy strategy = new MinimaxStrategy();
+        strategy.setMaxDepth(5);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(isLegal(game, black, move));
+        assertEquals(5, strategy.getDepthReached());
+    }
+
+    @Test
+    public void testStopsAtDeadline() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MinimaxStrategy strategy = new MinimaxStrategy();
+        strategy.setMaxDepth(60);
+        strategy.setTimeBudget(50);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(isLegal(game, black, move));
+        assertTrue(strategy.getDepthReached() >= 1);
+        assertTrue(strategy.getDepthReached() < 60);
+        // generous slack for slow test machines, the point is that it does not run to depth 60
+        assertTrue(strategy.getTimeUsedMillis() < 1000, "took " + strategy.getTimeUsedMillis() + " ms");
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        MinimaxStrategy strategy = new MinimaxStrategy();
+        assertThrows(IllegalArgumentException.class, () -> strategy.setMaxDepth(0));
+        assertThrows(IllegalArgumentException.class, () -> strategy.setTimeBudget(-1));
+        assertThrows(IllegalArgumentException.class, () -> strategy.setThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> strategy.setEndgameEmpties(-1));
+    }
+
+    @Test
+    public void testPrincipalVariationEngine() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MinimaxStrategy strategy = new MinimaxStrategy();
+        strategy.setEngine(MinimaxStrategy.Engine.PVS);
+        strategy.setMaxDepth(6);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(isLegal(game, black, move));
+        assertEquals(6, strategy.getDepthReached());
+    }
+
+    @Test
+    public void testMtdfEngineFromFactory() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MinimaxStrategy strategy = (MinimaxStrategy) StrategyFactory.createStrategy("mtdf");
+        assertEquals(MinimaxStrategy.Engine.MTDF, strategy.getEngine());
+        strategy.setMaxDepth(6);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(isLegal(game, black, move));
+        assertEquals(6, strategy.getDepthReached());
+    }
+
+    @Test
+    public void testLazySmpThreads() {
+        Player black = new HumanPlayer();
+        Player white = new HumanPlayer();
+        OthelloGame game = new OthelloGame(black, white);
+        MinimaxStrategy strategy = new MinimaxStrategy();
+        strategy.setThreads(3);
+        assertEquals(3, strategy.getThreads());
+        strategy.setMaxDepth(6);
+        BoardSpace move = strategy.getBestMove(game, black, white);
+        assertTrue(isLegal(game, black, move));
+        assertEquals(6, strategy.getDepthReached());
+        strategy.setThreads(1);
+    }
+}